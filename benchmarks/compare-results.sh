@@ -0,0 +1,38 @@
+#!/bin/bash
+#
+# Compare two JMH JSON result files, e.g. the jmh-results.json of two commits:
+#   benchmarks/compare-results.sh before.json after.json
+# Prints, per benchmark and parameter set, the score and the bytes allocated
+# per operation (gc.alloc.rate.norm) of both runs and the relative change.
+
+if [ $# -ne 2 ] || [ ! -f "$1" ] || [ ! -f "$2" ]; then
+  echo "Usage : $0 <avant.json> <après.json>"
+  exit 1
+fi
+
+read -r -d '' program <<'JQ'
+def rows: map({
+    key: ((.benchmark | sub("^com\\.example\\.demo\\.benchmark\\."; ""))
+          + ((.params // {}) | to_entries | map(" " + .key + "=" + .value) | join(""))),
+    score: .primaryMetric.score,
+    unit: .primaryMetric.scoreUnit,
+    alloc: ((.secondaryMetrics // {}) | to_entries | map(select(.key | endswith("gc.alloc.rate.norm"))) | first | .value.score)
+  });
+def fmt: if . == null then "-" else (. * 1000 | round / 1000 | tostring) end;
+($before[0] | rows | map({(.key): .}) | add // {}) as $old
+| $after[0] | rows[]
+| . as $new
+| $old[$new.key] as $previous
+| [$new.key,
+   ($previous.score | fmt),
+   ($new.score | fmt) + " " + $new.unit,
+   (if $previous.score then (($new.score - $previous.score) / $previous.score * 100 | round | tostring) + "%" else "-" end),
+   ($previous.alloc | if . == null then "-" else round | tostring end),
+   ($new.alloc | if . == null then "-" else (round | tostring) + " B/op" end)]
+| @tsv
+JQ
+
+{
+  printf "benchmark\tavant\taprès\tévolution\talloc avant\talloc après\n"
+  jq -r -n --slurpfile before "$1" --slurpfile after "$2" "$program"
+} | awk -F'\t' '{ printf "%-70s %14s %20s %10s %12s %16s\n", $1, $2, $3, $4, $5, $6 }'
@@ -0,0 +1,89 @@
+package com.example.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.service.BannedTermMatcher;
+
+/**
+ * Cost of scanning one commentary against the banned-term list, as a function of
+ * the post length. The post never contains a banned term, which is both the
+ * common case and the worst case (the whole post is scanned). The naive
+ * per-term {@code contains} loop is kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentFilterBenchmark {
+
+    @Param({ "64", "512", "4096", "32768" })
+    private int postLength;
+
+    @Param({ "5000" })
+    private int termCount;
+
+    private List<String> terms;
+    private BannedTermMatcher matcher;
+    private String post;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        terms = new ArrayList<>(termCount);
+        for (int i = 0; i < termCount; i++) {
+            // Banned terms all start with 'z' so that random filler words never hit them
+            terms.add("z" + word(random, 4 + random.nextInt(8)));
+        }
+        matcher = BannedTermMatcher.of(terms);
+
+        StringBuilder builder = new StringBuilder(postLength + 16);
+        while (builder.length() < postLength) {
+            builder.append(word(random, 2 + random.nextInt(9))).append(' ');
+        }
+        post = builder.substring(0, postLength);
+    }
+
+    @Benchmark
+    public Optional<String> ahoCorasick() {
+        return matcher.findFirst(post);
+    }
+
+    @Benchmark
+    public boolean naiveContains() {
+        String lowerCased = post.toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (lowerCased.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String word(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(25));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.entity.Game;
+import com.example.demo.entity.User;
+import com.example.demo.entity.dto.AuthorCardDTO;
+import com.example.demo.entity.dto.CommentaryDTO;
+import com.example.demo.entity.dto.GameDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Cost of writing the JSON bodies of the user profile, a commentary card (the
+ * CommentaryDTO with its author card, as the commentary endpoints return it)
+ * and a user's game library, as a function of the biography (and commentary)
+ * length and of the number of games in the library. Writers are resolved once, as
+ * Spring's message converter does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "0", "1024", "16384" })
+    private int biographyLength;
+
+    @Param({ "0", "50", "1000" })
+    private int librarySize;
+
+    private ObjectWriter userWriter;
+    private ObjectWriter commentaryWriter;
+    private ObjectWriter libraryWriter;
+
+    private User user;
+    private CommentaryDTO commentary;
+    private List<GameDTO> library;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        userWriter = objectMapper.writerFor(User.class);
+        commentaryWriter = objectMapper.writerFor(CommentaryDTO.class);
+        libraryWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, GameDTO.class));
+
+        Random random = new Random(42);
+        String text = text(random, biographyLength);
+        user = new User("testUser", "test@example.com", "$2a$10$abcdefghijklmnopqrstuuJ8gPp4Ykh0rFHmK8j1Q6qZfGJ0m2iS",
+                text, "testuser", false);
+        List<Game> games = new ArrayList<>(librarySize);
+        library = new ArrayList<>(librarySize);
+        for (long id = 1; id <= librarySize; id++) {
+            Game game = new Game();
+            game.setId(20_000 + id);
+            games.add(game);
+            GameDTO dto = new GameDTO();
+            dto.setId(game.getId());
+            library.add(dto);
+        }
+        user.setGames(games);
+        user.setProfilePicture("avatar.png");
+        commentary = new CommentaryDTO(1L, text, 26668,
+                new AuthorCardDTO(1L, user.getUsername(), user.getSlug(), user.getProfilePicture()));
+    }
+
+    @Benchmark
+    public byte[] user() throws JsonProcessingException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] commentary() throws JsonProcessingException {
+        return commentaryWriter.writeValueAsBytes(commentary);
+    }
+
+    @Benchmark
+    public byte[] library() throws JsonProcessingException {
+        return libraryWriter.writeValueAsBytes(library);
+    }
+
+    // Words of lowercase letters, with an accented letter now and then to exercise UTF-8 encoding
+    private static String text(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            int wordLength = 2 + random.nextInt(9);
+            for (int i = 0; i < wordLength; i++) {
+                builder.append(random.nextInt(40) == 0 ? 'é' : (char) ('a' + random.nextInt(26)));
+            }
+            builder.append(' ');
+        }
+        return builder.substring(0, length);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.slugify.Slugify;
+
+/**
+ * Cost of the slug computed for every new user, with the slugifier configured
+ * as in UserService. Accented names go through Unicode normalization, plain
+ * ASCII ones mostly do not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlugifyBenchmark {
+
+    @Param({ "testUser", "Élodie Dupont-Mérou" })
+    private String username;
+
+    private final Slugify slugify = Slugify.builder().build();
+
+    @Benchmark
+    public String slugify() {
+        return slugify.slugify(username);
+    }
+}
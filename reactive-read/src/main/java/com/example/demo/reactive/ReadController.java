@@ -0,0 +1,47 @@
+package com.example.demo.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.User;
+import com.example.demo.entity.dto.CommentaryDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read endpoints of the application with the same paths, parameters and
+ * bodies. Lists are written element by element as the rows arrive, a JSON
+ * array by default or one document per line with Accept: application/x-ndjson;
+ * a slow client holds back the reads instead of the rows piling up in memory.
+ */
+@RestController
+public class ReadController {
+
+    // Same cap as CommentaryService
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ReadRepository readRepository;
+
+    @GetMapping("/users/{slug}")
+    public Mono<User> getOneBySlug(@PathVariable String slug) {
+        return readRepository.findUserBySlug(slug);
+    }
+
+    @GetMapping("/commentaries")
+    public Flux<CommentaryDTO> getCommentaries(@RequestParam(required = false) Integer gameId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return readRepository.findCommentaries(gameId, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+
+    @GetMapping("/notes")
+    public Flux<Score> getAllScores() {
+        return readRepository.findScores();
+    }
+}
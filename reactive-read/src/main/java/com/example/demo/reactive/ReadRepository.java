@@ -0,0 +1,100 @@
+package com.example.demo.reactive;
+
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.entity.Game;
+import com.example.demo.entity.Score;
+import com.example.demo.entity.User;
+import com.example.demo.entity.dto.AuthorCardDTO;
+import com.example.demo.entity.dto.CommentaryDTO;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads of the tables written by the application, mapped by hand to its
+ * entities and DTOs: their JPA mapping means nothing to R2DBC. Rows are
+ * emitted as the driver decodes them, as fast as the subscriber requests them.
+ */
+@Repository
+public class ReadRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<User> findUserBySlug(String slug) {
+        return databaseClient.sql("select id, username, slug, email, password, role, banner_picture, profile_picture, "
+                + "biography, is_online from users where slug = :slug")
+                .bind("slug", slug)
+                .map(ReadRepository::toUser)
+                .first()
+                .flatMap(user -> findGames(user.getId()).collectList().map(games -> {
+                    user.setGames(games);
+                    return user;
+                }));
+    }
+
+    public Flux<Game> findGames(Long userId) {
+        return databaseClient.sql("select game_id from user_game where user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> {
+                    Game game = new Game();
+                    game.setId(row.get("game_id", Long.class));
+                    return game;
+                })
+                .all();
+    }
+
+    // Same order as the application, newest first, the author joined in the same statement
+    public Flux<CommentaryDTO> findCommentaries(Integer gameId, int page, int size) {
+        String where = gameId == null ? "" : "where c.game_id = :gameId ";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("select c.id, c.content, c.game_id, c.parent_id, "
+                + "c.depth, u.id as author_id, u.username, u.slug, u.profile_picture from commentary c "
+                + "left join users u on u.id = c.user_id " + where + "order by c.id desc limit :limit offset :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size);
+        if (gameId != null) {
+            spec = spec.bind("gameId", gameId);
+        }
+        return spec.map(ReadRepository::toCommentary).all();
+    }
+
+    public Flux<Score> findScores() {
+        return databaseClient.sql("select id, score, user_id, game_id, version from score order by id")
+                .map(row -> {
+                    Score score = new Score(row.get("id", Long.class), row.get("score", Long.class),
+                            row.get("user_id", Long.class), row.get("game_id", Long.class));
+                    score.setVersion(row.get("version", Long.class));
+                    return score;
+                })
+                .all();
+    }
+
+    private static User toUser(Readable row) {
+        User user = new User(row.get("username", String.class), row.get("email", String.class),
+                row.get("password", String.class), row.get("biography", String.class), row.get("slug", String.class),
+                Boolean.TRUE.equals(row.get("role", Boolean.class)));
+        // The id of a user has no setter, the application only gets it from the database
+        new DirectFieldAccessor(user).setPropertyValue("id", row.get("id", Long.class));
+        user.setBannerPicture(row.get("banner_picture", String.class));
+        user.setProfilePicture(row.get("profile_picture", String.class));
+        user.setIsOnline(Boolean.TRUE.equals(row.get("is_online", Boolean.class)));
+        return user;
+    }
+
+    private static CommentaryDTO toCommentary(Readable row) {
+        Long authorId = row.get("author_id", Long.class);
+        AuthorCardDTO author = authorId == null ? null
+                : new AuthorCardDTO(authorId, row.get("username", String.class), row.get("slug", String.class),
+                        row.get("profile_picture", String.class));
+        CommentaryDTO commentary = new CommentaryDTO(row.get("id", Long.class), row.get("content", String.class),
+                row.get("game_id", Integer.class), author);
+        commentary.setParentId(row.get("parent_id", Long.class));
+        commentary.setDepth(row.get("depth", Integer.class));
+        return commentary;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.demo.entity.Score;
+
+import reactor.test.StepVerifier;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ReadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void getOneBySlug_ShouldReturnUserWithGames() {
+        // When / Then
+        webTestClient.get().uri("/users/alice").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.username").isEqualTo("Alice")
+                .jsonPath("$.profilePicture").isEqualTo("alice.png")
+                .jsonPath("$.isOnline").isEqualTo(true)
+                .jsonPath("$.games[*].id").isEqualTo(java.util.List.of(10, 20));
+    }
+
+    @Test
+    void getOneBySlug_ShouldReturnEmptyBody_WhenUnknown() {
+        // When / Then
+        webTestClient.get().uri("/users/unknown").exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getCommentaries_ShouldReturnNewestFirstWithAuthors() {
+        // When / Then
+        webTestClient.get().uri("/commentaries?gameId=10&size=1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(2)
+                .jsonPath("$[0].parentId").isEqualTo(1)
+                .jsonPath("$[0].depth").isEqualTo(1)
+                .jsonPath("$[0].author.slug").isEqualTo("alice");
+        webTestClient.get().uri("/commentaries").exchange()
+                .expectBody()
+                .jsonPath("$[*].id").isEqualTo(java.util.List.of(3, 2, 1))
+                .jsonPath("$[0].author").doesNotExist();
+    }
+
+    @Test
+    void getAllScores_ShouldStreamOneDocumentPerLine_WhenNdjsonIsAccepted() {
+        // When
+        var scores = webTestClient.get().uri("/notes").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .returnResult(Score.class).getResponseBody();
+
+        // Then
+        StepVerifier.create(scores)
+                .expectNextMatches(score -> score.getId() == 1 && score.getScore() == 80)
+                .expectNextMatches(score -> score.getId() == 2 && score.getVersion() == 2)
+                .verifyComplete();
+    }
+}
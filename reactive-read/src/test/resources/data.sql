@@ -0,0 +1,9 @@
+insert into users (id, username, slug, email, password, role, profile_picture, biography, is_online)
+    values (1, 'Alice', 'alice', 'alice@test.fr', 'hash', false, 'alice.png', 'Bio', true);
+insert into games (id) values (10), (20);
+insert into user_game (user_id, game_id) values (1, 10), (1, 20);
+insert into commentary (id, content, game_id, user_id, parent_id, root_id, path, depth)
+    values (1, 'Premier', 10, 1, null, 1, '00000001.', 0),
+           (2, 'Réponse', 10, 1, 1, 1, '00000001.00000002.', 1),
+           (3, 'Autre jeu', 20, null, null, 3, '00000003.', 0);
+insert into score (id, score, user_id, game_id, version) values (1, 80, 1, 10, 0), (2, 60, 1, 20, 2);
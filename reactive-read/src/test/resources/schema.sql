@@ -0,0 +1,9 @@
+-- Tables read by the module, as the application creates them
+create table users (id bigint primary key, username varchar(255), slug varchar(255), email varchar(255),
+    password varchar(255), role boolean, banner_picture varchar(255), profile_picture varchar(255),
+    biography text, is_online boolean);
+create table games (id bigint primary key);
+create table user_game (user_id bigint not null, game_id bigint not null);
+create table commentary (id bigint primary key, content varchar(255), game_id int not null, user_id bigint,
+    parent_id bigint, root_id bigint, path varchar(255), depth int not null);
+create table score (id bigint primary key, score bigint, user_id bigint, game_id bigint, version bigint not null);
@@ -0,0 +1,123 @@
+#!/bin/bash
+#
+# Compare the application (Spring MVC, JDBC) and the reactive read module
+# (WebFlux, R2DBC) on the read endpoints they share, at rising numbers of
+# concurrent connections: throughput, p99 latency, resident memory per
+# connection and threads.
+#
+# Needs vegeta, jq, curl, both jars (mvn package, mvn -f reactive-read/pom.xml
+# package) and a MySQL database configured through the usual profile. The
+# application runs first, with ddl-auto=update so that the tables it creates
+# (and the rows it generates with GENERATE_DATA=true) stay for the reactive run.
+# Extra arguments can be passed in APP_ARGS and REACTIVE_ARGS (e.g. the R2DBC
+# url, spring.r2dbc.url=r2dbc:mysql://localhost:3306/DATABASE by default).
+#
+# The reactive module has no caches, single flight, concurrency limits or
+# warm-up; the application runs without them too, unless set otherwise through
+# CACHE, SINGLE_FLIGHT, CONCURRENCY_LIMIT and WARM_UP.
+#
+#   POOL_SIZE     connection pool size of both servers (default 10)
+#   CONCURRENCY   concurrent connections of each step (default "100 1000 4000")
+#   DURATION      measured duration of each step (default 30s)
+#   WARMUP        unmeasured warm-up before the first step (default 10s)
+#   SLUG          user fetched by GET /users/{slug} (default sid-ahmed)
+#   JAVA_OPTS     JVM options of both servers (default -Xms512m -Xmx512m)
+
+POOL_SIZE=${POOL_SIZE:-10}
+CONCURRENCY=${CONCURRENCY:-"100 1000 4000"}
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+SLUG=${SLUG:-sid-ahmed}
+JAVA_OPTS=${JAVA_OPTS:-"-Xms512m -Xmx512m"}
+WORKDIR=target/reactive-comparison
+
+mvc_jar=$(ls target/*.jar 2>/dev/null | grep -v plain | head -n 1)
+reactive_jar=reactive-read/target/reactive-read.jar
+if [ -z "$mvc_jar" ]; then
+  echo "Erreur : aucun jar dans target/, lancez d'abord mvn package."
+  exit 1
+fi
+if [ ! -f "$reactive_jar" ]; then
+  echo "Erreur : $reactive_jar est introuvable, lancez d'abord mvn -f reactive-read/pom.xml package."
+  exit 1
+fi
+
+mkdir -p "$WORKDIR"
+cat > "$WORKDIR/targets.txt" <<EOF
+GET http://localhost:8080/users/$SLUG
+
+GET http://localhost:8080/commentaries?page=0&size=50
+
+GET http://localhost:8080/commentaries?gameId=1&size=20
+
+GET http://localhost:8080/notes
+EOF
+
+rss_kb() {
+  ps -o rss= -p "$1" | tr -d ' '
+}
+
+run_server() {
+  name=$1
+  shift
+  echo "Démarrage de $name (pool de $POOL_SIZE connexions)..."
+  java $JAVA_OPTS -jar "$@" > "$WORKDIR/$name.log" 2>&1 &
+  pid=$!
+
+  for i in $(seq 1 120); do
+    curl -sf -o /dev/null "http://localhost:8080/users/$SLUG" && break
+    sleep 1
+  done
+
+  vegeta attack -duration=$WARMUP -rate=0 -max-workers=10 --targets="$WORKDIR/targets.txt" > /dev/null
+  idle_rss=$(rss_kb $pid)
+
+  for workers in $CONCURRENCY; do
+    # Peak resident memory and threads while the step runs
+    rm -f "$WORKDIR/stop"
+    (
+      peak=0
+      threads=0
+      while kill -0 $pid 2>/dev/null && [ ! -f "$WORKDIR/stop" ]; do
+        rss=$(rss_kb $pid)
+        [ "${rss:-0}" -gt "$peak" ] && peak=$rss
+        count=$(ls /proc/$pid/task 2>/dev/null | wc -l)
+        [ "$count" -gt "$threads" ] && threads=$count
+        sleep 0.5
+      done
+      echo "$peak $threads" > "$WORKDIR/$name-$workers.mem"
+    ) &
+    sampler=$!
+    vegeta attack -duration=$DURATION -rate=0 -max-workers=$workers -connections=$workers \
+      --targets="$WORKDIR/targets.txt" > "$WORKDIR/$name-$workers.bin"
+    touch "$WORKDIR/stop"
+    wait $sampler
+    echo "$idle_rss" >> "$WORKDIR/$name-$workers.mem"
+  done
+
+  kill $pid
+  wait $pid 2>/dev/null
+}
+
+CACHE=${CACHE:-false} SINGLE_FLIGHT=${SINGLE_FLIGHT:-false} \
+  CONCURRENCY_LIMIT=${CONCURRENCY_LIMIT:-false} WARM_UP=${WARM_UP:-false} \
+  run_server mvc "$mvc_jar" --spring.jpa.hibernate.ddl-auto=update \
+  --spring.datasource.hikari.maximum-pool-size=$POOL_SIZE $APP_ARGS
+run_server reactive "$reactive_jar" --spring.r2dbc.pool.max-size=$POOL_SIZE \
+  --spring.r2dbc.pool.initial-size=$POOL_SIZE $REACTIVE_ARGS
+
+echo
+printf "%-9s %8s %14s %10s %8s %12s %8s\n" "serveur" "conn." "throughput/s" "p99 (ms)" "succès" "Ko/conn." "threads"
+for workers in $CONCURRENCY; do
+  for name in mvc reactive; do
+    read peak threads < <(head -n 1 "$WORKDIR/$name-$workers.mem")
+    idle=$(tail -n 1 "$WORKDIR/$name-$workers.mem")
+    per_connection=$(( (peak - idle) / workers ))
+    vegeta report -type=json < "$WORKDIR/$name-$workers.bin" | jq -r \
+      '[(.throughput | floor), (.latencies."99th" / 1e6 | floor), (.success * 100 | floor | tostring + "%")] | @tsv' \
+      | awk -F'\t' -v name=$name -v workers=$workers -v mem=$per_connection -v threads=$threads \
+        '{ printf "%-9s %8s %14s %10s %8s %12s %8s\n", name, workers, $1, $2, $3, mem, threads }'
+  done
+done
+echo
+echo "Ko/conn. : mémoire résidente au pic de l'étape moins celle au repos, divisée par le nombre de connexions."
@@ -0,0 +1,85 @@
+#!/bin/bash
+#
+# Measure the time from JVM launch to the first successful GET /users/{slug},
+# with the plain jar and with the startup-optimized packaging of the Dockerfile
+# (Spring AOT bean definitions and a class-data-sharing archive).
+#
+# Needs curl, a jar built with the aot profile (mvn -P dev,aot package) and a
+# database configured through the usual profile; extra application arguments
+# can be passed in APP_ARGS.
+#
+#   RUNS   launches per mode (default 5)
+#   SLUG   user fetched by the probe request (default sid-ahmed, a generated user)
+#   PORT   HTTP port of the application (default 8080)
+
+RUNS=${RUNS:-5}
+SLUG=${SLUG:-sid-ahmed}
+PORT=${PORT:-8080}
+WORKDIR=target/startup
+
+jar=$(ls target/*.jar 2>/dev/null | grep -v plain | head -n 1)
+if [ -z "$jar" ]; then
+  echo "Erreur : aucun jar dans target/, lancez d'abord mvn -P dev,aot package."
+  exit 1
+fi
+if ! unzip -l "$jar" | grep -q "__ApplicationContextInitializer"; then
+  echo "Erreur : $jar n'a pas été construit avec le profil aot."
+  exit 1
+fi
+
+# Same steps as the Dockerfile: extract, then a training run that records the loaded classes
+echo "Création de l'archive CDS..."
+rm -rf "$WORKDIR"
+java -Djarmode=tools -jar "$jar" extract --destination "$WORKDIR" > /dev/null || exit 1
+app_jar=$(basename "$jar")
+(cd "$WORKDIR" && java -XX:ArchiveClassesAtExit=application.jsa -Dspring.context.exit=onRefresh \
+  -Dspring.aot.enabled=true -Dspring.jpa.hibernate.ddl-auto=none \
+  -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+  -Dspring.jpa.database-platform=org.hibernate.dialect.MySQLDialect -Dspring.sql.init.mode=never \
+  -Dapp.jfr.continuous.enabled=false -jar "$app_jar" > training.log 2>&1) || {
+  echo "Erreur : l'exécution d'entraînement a échoué, voir $WORKDIR/training.log."
+  exit 1
+}
+
+# Prints the milliseconds until the probe request succeeds, or "échec" if the
+# application stops or does not answer within 60 s
+measure() {
+  start=$(date +%s%N)
+  "$@" --server.port=$PORT $APP_ARGS > "app-startup.log" 2>&1 &
+  app_pid=$!
+  result="échec"
+  for i in $(seq 1 3000); do
+    if [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/users/$SLUG")" == "200" ]; then
+      result=$(( ($(date +%s%N) - start) / 1000000 ))
+      break
+    fi
+    kill -0 $app_pid 2>/dev/null || break
+    sleep 0.02
+  done
+  kill $app_pid 2>/dev/null
+  wait $app_pid 2>/dev/null
+  echo "$result"
+}
+
+run_mode() {
+  mode=$1
+  shift
+  times=()
+  for run in $(seq 1 "$RUNS"); do
+    times+=("$(measure "$@")")
+    echo "  $mode, lancement $run : ${times[-1]}" >&2
+  done
+  printf "%s\n" "${times[@]}" | sort -n | awk -v mode="$mode" \
+    '{ t[NR] = $1 } END { printf "%-10s %10s %10s %10s\n", mode, t[1], t[int((NR + 1) / 2)], t[NR] }'
+}
+
+echo "Mesure du démarrage ($RUNS lancements par mode)..."
+plain=$(run_mode plain java -jar "$jar")
+optimized=$(cd "$WORKDIR" && run_mode optimized java -XX:SharedArchiveFile=application.jsa \
+  -Dspring.aot.enabled=true -jar "$app_jar")
+
+echo
+echo "Temps jusqu'à la première réponse réussie de /users/$SLUG (ms) :"
+printf "%-10s %10s %10s %10s\n" "mode" "min" "médiane" "max"
+echo "$plain"
+echo "$optimized"
@@ -0,0 +1,77 @@
+#!/bin/bash
+#
+# Compare throughput and p99 latency of request handling on platform threads
+# and on virtual threads, with the same connection pool size.
+#
+# Needs vegeta, jq, curl, a packaged application (mvn package) and a database
+# configured through the usual profile; extra application arguments can be
+# passed in APP_ARGS (e.g. APP_ARGS="--spring.profiles.active=dev").
+#
+# Caches, single flight, concurrency limits and warm-up are on by default in
+# the application; both runs turn them off so that each request reaches the
+# database, unless set otherwise through CACHE, SINGLE_FLIGHT,
+# CONCURRENCY_LIMIT and WARM_UP.
+#
+#   POOL_SIZE   connection pool size of both runs (default 10)
+#   WORKERS     concurrent vegeta workers, i.e. in-flight requests (default 200)
+#   DURATION    measured duration of each run (default 30s)
+#   WARMUP      unmeasured warm-up before each run (default 10s)
+#   TARGETS     vegeta targets file (default targets-read.txt)
+
+POOL_SIZE=${POOL_SIZE:-10}
+WORKERS=${WORKERS:-200}
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+TARGETS=${TARGETS:-./targets-read.txt}
+
+jar=$(ls target/*.jar 2>/dev/null | grep -v plain | head -n 1)
+if [ -z "$jar" ]; then
+  echo "Erreur : aucun jar dans target/, lancez d'abord mvn package."
+  exit 1
+fi
+
+if [ ! -f "$TARGETS" ]; then
+  echo "Erreur : le fichier $TARGETS est introuvable."
+  exit 1
+fi
+
+run_mode() {
+  mode=$1
+  virtual=$([ "$mode" == "virtual" ] && echo true || echo false)
+
+  echo "Démarrage de l'application ($mode threads, pool de $POOL_SIZE connexions)..."
+  CACHE=${CACHE:-false} SINGLE_FLIGHT=${SINGLE_FLIGHT:-false} \
+    CONCURRENCY_LIMIT=${CONCURRENCY_LIMIT:-false} WARM_UP=${WARM_UP:-false} \
+    java -jar "$jar" --spring.threads.virtual.enabled=$virtual \
+    --spring.datasource.hikari.maximum-pool-size=$POOL_SIZE $APP_ARGS > "app-$mode.log" 2>&1 &
+  app_pid=$!
+
+  for i in $(seq 1 60); do
+    curl -s -o /dev/null http://localhost:8080/users && break
+    sleep 1
+  done
+
+  vegeta attack -duration=$WARMUP -rate=0 -max-workers=$WORKERS --targets="$TARGETS" > /dev/null
+  vegeta attack -duration=$DURATION -rate=0 -max-workers=$WORKERS --targets="$TARGETS" > "results-$mode.bin"
+
+  kill $app_pid
+  wait $app_pid 2>/dev/null
+
+  echo "Résultats ($mode threads) :"
+  vegeta report < "results-$mode.bin"
+}
+
+run_mode platform
+run_mode virtual
+
+echo
+printf "%-10s %14s %10s %10s %8s\n" "mode" "throughput/s" "p50 (ms)" "p99 (ms)" "succès"
+for mode in platform virtual; do
+  vegeta report -type=json < "results-$mode.bin" | jq -r --arg mode "$mode" \
+    '[$mode, (.throughput | floor), (.latencies."50th" / 1e6 | floor), (.latencies."99th" / 1e6 | floor), (.success * 100 | floor | tostring + "%")] | @tsv' \
+    | awk -F'\t' '{ printf "%-10s %14s %10s %10s %8s\n", $1, $2, $3, $4, $5 }'
+done
+
+pins=$(grep -c "pinned for" app-virtual.log)
+echo
+echo "Sites d'épinglage de threads virtuels détectés : $pins (détail dans app-virtual.log)"
@@ -0,0 +1,146 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounds the requests in flight on a group of routes by a limit that follows
+ * their latency, in the manner of the gradient limiters: once per window, the
+ * mean latency of the window is compared with a long-term average of it. As
+ * long as they stay within tolerance, requests are not queuing and the limit
+ * grows by a margin of sqrt(limit); when the window gets slower, the limit
+ * shrinks in proportion, down to half at once. A window with server errors
+ * (typically connection pool timeouts) cuts the limit by a tenth instead.
+ *
+ * The limit does not move while less than half of it is used, so a quiet
+ * period never lets it grow far beyond what was actually served.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    // Windows averaged by the long-term latency
+    private static final int LONG_WINDOWS = 60;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    // Current window and long-term latency, guarded by this
+    private long windowEnd;
+    private long windowSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+    private double longRtt;
+
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance,
+            Duration window, int minWindowSamples, MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = window.toNanos();
+        this.minWindowSamples = minWindowSamples;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.windowEnd = System.nanoTime() + windowNanos;
+        this.accepted = Counter.builder("app.concurrency.requests")
+                .description("Requests let through or rejected by a concurrency limiter")
+                .tags("limiter", name, "outcome", "accepted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.concurrency.requests")
+                .description("Requests let through or rejected by a concurrency limiter")
+                .tags("limiter", name, "outcome", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("app.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Requests a concurrency limiter lets in flight at most")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("app.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests in flight through a concurrency limiter")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        accepted.increment();
+        return true;
+    }
+
+    // Releases without a sample, for requests whose duration says nothing of the load
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        onSample(System.nanoTime(), rttNanos, current, dropped);
+    }
+
+    synchronized void onSample(long now, long rttNanos, int inFlightAtEnd, boolean dropped) {
+        if (dropped) {
+            windowDropped = true;
+        } else {
+            windowSum += rttNanos;
+            windowSamples++;
+        }
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtEnd);
+        if (now - windowEnd < 0 || (windowSamples < minWindowSamples && !windowDropped)) {
+            return;
+        }
+        update();
+        windowEnd = now + windowNanos;
+        windowSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    private void update() {
+        if (windowDropped) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+        double shortRtt = (double) windowSum / windowSamples;
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / LONG_WINDOWS;
+        // After a lasting slowdown, let the long-term latency come back faster
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        if (windowMaxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
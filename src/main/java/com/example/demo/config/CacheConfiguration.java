@@ -0,0 +1,76 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.entity.User;
+import com.example.demo.entity.dto.AuthorCardDTO;
+import com.example.demo.repository.CacheInvalidationRepository;
+import com.example.demo.repository.CommentaryRepository.CommentaryRow;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-node caches of the read paths, invalidated on every node through the
+ * transport. The cache_invalidation table polling is used unless another
+ * {@link CacheInvalidationTransport} bean is defined. With app.cache.enabled
+ * false the caches are disabled and no transport runs.
+ */
+@Configuration
+public class CacheConfiguration {
+
+    @Value("${app.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.cache.ttl:PT10M}")
+    private Duration ttl;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(CacheInvalidationTransport.class)
+    public JdbcPollingInvalidationTransport jdbcPollingInvalidationTransport(
+            CacheInvalidationRepository cacheInvalidationRepository,
+            @Value("${app.cache.invalidation.gap-timeout:PT10S}") Duration gapTimeout,
+            @Value("${app.cache.invalidation.retention:PT10M}") Duration retention) {
+        return new JdbcPollingInvalidationTransport(cacheInvalidationRepository, enabled, gapTimeout, retention);
+    }
+
+    // User profiles of GET /users/{slug}, with their game library
+    @Bean
+    public TwoTierCache<String, User> usersBySlugCache(ObjectProvider<CacheInvalidationTransport> transport,
+            MeterRegistry meterRegistry) {
+        return cache("users-by-slug", transport, meterRegistry);
+    }
+
+    // Commentaries of GET /commentaries/{id}, without their author
+    @Bean
+    public TwoTierCache<Long, CommentaryRow> commentaryRowsCache(ObjectProvider<CacheInvalidationTransport> transport,
+            MeterRegistry meterRegistry) {
+        return cache("commentary-rows", transport, meterRegistry);
+    }
+
+    // Author cards of GET /commentaries/{id}, by user id
+    @Bean
+    public TwoTierCache<Long, AuthorCardDTO> authorCardsCache(ObjectProvider<CacheInvalidationTransport> transport,
+            MeterRegistry meterRegistry) {
+        return cache("author-cards", transport, meterRegistry);
+    }
+
+    private <K, V> TwoTierCache<K, V> cache(String name, ObjectProvider<CacheInvalidationTransport> transport,
+            MeterRegistry meterRegistry) {
+        CacheInvalidationTransport available = transport.getIfAvailable();
+        if (!enabled || available == null) {
+            return TwoTierCache.disabled(name);
+        }
+        return new TwoTierCache<>(name, maxSize, ttl, available, meterRegistry);
+    }
+}
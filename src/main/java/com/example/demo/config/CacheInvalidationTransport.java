@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+/**
+ * Carries cache invalidations between the nodes running the application.
+ * Versions come from the transport and grow with the order invalidations
+ * were published in, so that a cache can tell a late invalidation from a new
+ * one. Listeners also receive the invalidations published by their own node.
+ */
+public interface CacheInvalidationTransport {
+
+    interface Listener {
+        void onInvalidation(String cacheName, String key, long version);
+    }
+
+    // Returns the version of the invalidation
+    long publish(String cacheName, String key);
+
+    void subscribe(Listener listener);
+}
@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adaptive concurrency limits at the HTTP edge, on when
+ * app.concurrency-limit.enabled is true, as application.properties sets it
+ * unless CONCURRENCY_LIMIT=false: one limiter for login and registration,
+ * whose BCrypt work saturates the CPU long before the other routes, and one
+ * for everything else.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfiguration {
+
+    @Value("${app.concurrency-limit.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${app.concurrency-limit.window:PT1S}")
+    private Duration window;
+
+    @Value("${app.concurrency-limit.window-min-samples:10}")
+    private int windowMinSamples;
+
+    @Value("${app.concurrency-limit.retry-after:PT1S}")
+    private Duration retryAfter;
+
+    @Value("${app.concurrency-limit.excluded-paths:/actuator/**,/livez,/readyz}")
+    private List<String> excludedPaths;
+
+    // After the timing filters, so that they see the rejections, and before security
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(MeterRegistry meterRegistry,
+            @Value("${app.concurrency-limit.default.initial:20}") int defaultInitial,
+            @Value("${app.concurrency-limit.default.min:4}") int defaultMin,
+            @Value("${app.concurrency-limit.default.max:200}") int defaultMax,
+            @Value("${app.concurrency-limit.auth.initial:4}") int authInitial,
+            @Value("${app.concurrency-limit.auth.min:1}") int authMin,
+            @Value("${app.concurrency-limit.auth.max:16}") int authMax) {
+        AdaptiveConcurrencyLimiter auth = limiter("auth", authInitial, authMin, authMax, meterRegistry);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiter("default", defaultInitial, defaultMin, defaultMax, meterRegistry),
+                        Map.of("/users/login", auth, "/users/register", auth), excludedPaths, retryAfter));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String name, int initial, int min, int max, MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(name, initial, Math.max(1, min), max, tolerance, window,
+                windowMinSamples, meterRegistry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds the requests a limiter has no room for before they reach security,
+ * the controllers or the connection pool: they get a 503 with Retry-After at
+ * once instead of waiting for a thread and a connection. Each request goes
+ * through the limiter of the first route pattern it matches, or the default
+ * one. Excluded paths (probes, streams, downloads) are not limited; neither is
+ * a request that turned asynchronous, whose duration is that of the stream.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final AdaptiveConcurrencyLimiter defaultLimiter;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> routeLimiters;
+
+    private final List<String> excludedPaths;
+
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter defaultLimiter,
+            Map<String, AdaptiveConcurrencyLimiter> routeLimiters, List<String> excludedPaths, Duration retryAfter) {
+        this.defaultLimiter = defaultLimiter;
+        this.routeLimiters = routeLimiters;
+        this.excludedPaths = excludedPaths;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return excludedPaths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiter(request.getRequestURI());
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("Le serveur est surchargé, réessayez plus tard");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                limiter.release();
+            } else {
+                limiter.release(System.nanoTime() - start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String path) {
+        for (Map.Entry<String, AdaptiveConcurrencyLimiter> route : routeLimiters.entrySet()) {
+            if (PATH_MATCHER.match(route.getKey(), path)) {
+                return route.getValue();
+            }
+        }
+        return defaultLimiter;
+    }
+}
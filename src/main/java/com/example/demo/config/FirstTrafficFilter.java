@@ -0,0 +1,69 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times the first requests served once the application reports ready, in
+ * app.first.traffic tagged with whether the warm-up ran. Comparing deploys
+ * with and without warm-up shows what it saves on the requests that would
+ * otherwise pay for JIT compilation. Actuator requests and probes are not
+ * counted.
+ */
+public class FirstTrafficFilter extends OncePerRequestFilter {
+
+    private final ApplicationAvailability availability;
+
+    private final MeterRegistry meterRegistry;
+
+    private final BooleanSupplier warmedUp;
+
+    private final AtomicInteger remaining;
+
+    public FirstTrafficFilter(ApplicationAvailability availability, MeterRegistry meterRegistry,
+            BooleanSupplier warmedUp, int requests) {
+        this.availability = availability;
+        this.meterRegistry = meterRegistry;
+        this.warmedUp = warmedUp;
+        this.remaining = new AtomicInteger(requests);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return remaining.get() <= 0 || path.startsWith("/actuator") || path.equals("/livez") || path.equals("/readyz")
+                || availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (remaining.getAndDecrement() <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Timer.builder("app.first.traffic")
+                    .description("Latency of the first requests once the application is ready")
+                    .tag("warmed", String.valueOf(warmedUp.getAsBoolean()))
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.example.demo.entity.CacheInvalidation;
+import com.example.demo.repository.CacheInvalidationRepository;
+
+/**
+ * Invalidations as rows of the cache_invalidation table, whose id is the
+ * version, read by every node at app.cache.invalidation.poll-interval. No
+ * infrastructure besides the database is needed, at the cost of that delay
+ * before other nodes drop a stale entry.
+ *
+ * An id may become visible after a greater one when two inserts commit out
+ * of order. Ids skipped by a poll are asked for again by the next polls for
+ * app.cache.invalidation.gap-timeout (ids lost to rolled back inserts are
+ * never filled). Rows older than app.cache.invalidation.retention are deleted.
+ *
+ * app.cache.enabled is checked again at runtime: in an AOT image the bean
+ * exists whenever caching was on at build time, and must stay idle when it is
+ * turned off at startup.
+ *
+ * The latest id is read when the context starts, not when the bean is
+ * created: the training run of the image build refreshes the context
+ * without a database and exits before the start.
+ */
+public class JdbcPollingInvalidationTransport implements CacheInvalidationTransport, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcPollingInvalidationTransport.class);
+
+    // Larger jumps, e.g. auto-increment blocks after a restart, are not tracked id by id
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+
+    private final boolean enabled;
+
+    private final Duration gapTimeout;
+
+    private final Duration retention;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Skipped ids and the System.nanoTime() after which they are given up
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    private long lastSeen;
+
+    private volatile boolean running;
+
+    public JdbcPollingInvalidationTransport(CacheInvalidationRepository cacheInvalidationRepository, boolean enabled,
+            Duration gapTimeout, Duration retention) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.enabled = enabled;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+    }
+
+    // Caches start empty, older invalidations have nothing to evict
+    @Override
+    public synchronized void start() {
+        if (enabled) {
+            Long maxId = cacheInvalidationRepository.findMaxId();
+            lastSeen = maxId == null ? 0 : maxId;
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the web server starts, so no entry is loaded before the latest id is known
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public long publish(String cacheName, String key) {
+        return cacheInvalidationRepository.save(new CacheInvalidation(cacheName, key, clock.instant())).getId();
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval:PT1S}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        gaps.values().removeIf(deadline -> deadline - now < 0);
+        // An empty IN list is not valid SQL everywhere
+        Set<Long> missing = gaps.isEmpty() ? Set.of(-1L) : Set.copyOf(gaps.keySet());
+        for (CacheInvalidation invalidation : cacheInvalidationRepository.findAfter(lastSeen, missing)) {
+            long id = invalidation.getId();
+            if (id > lastSeen) {
+                if (id - lastSeen - 1 <= MAX_TRACKED_GAP) {
+                    for (long skipped = lastSeen + 1; skipped < id; skipped++) {
+                        gaps.put(skipped, now + gapTimeout.toNanos());
+                    }
+                }
+                lastSeen = id;
+            } else {
+                gaps.remove(id);
+            }
+            for (Listener listener : listeners) {
+                try {
+                    listener.onInvalidation(invalidation.getCacheName(), invalidation.getCacheKey(), id);
+                } catch (RuntimeException e) {
+                    log.warn("Cache invalidation {} failed", id, e);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.prune-interval:PT1M}")
+    public void prune() {
+        if (!enabled) {
+            return;
+        }
+        cacheInvalidationRepository.deleteOlderThan(clock.instant().minus(retention));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time spent executing statements and batches to the statistics and
+ * the Server-Timing of the current request. Hibernate creates one listener per
+ * session, and a session is used by one thread at a time.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        long nanos = System.nanoTime() - start;
+        QueryStatistics statistics = QueryStatistics.current();
+        if (statistics != null) {
+            statistics.statementExecuted(nanos);
+        }
+        ServerTiming.recordDb(nanos);
+    }
+}
@@ -6,12 +6,18 @@ import java.util.function.Function;
 
 import javax.crypto.spec.SecretKeySpec;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 
 @Service
@@ -23,11 +29,18 @@ public class JwtService {
     @Value("${app.expiration-time}")
     private long expirationTime;
 
+    // Global registry by default so the service also works outside of Spring (benchmarks)
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
     public String generateToken(Long id, String username, String slug) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", id);
         claims.put("slug", slug);
-        return createToken(claims, username);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String token = createToken(claims, username);
+        ServerTiming.recordAuth(sample.stop(timer("sign", "success")));
+        return token;
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
@@ -59,6 +72,35 @@ public class JwtService {
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token, Claims::getSubject);
+    }
+
+    // The id claim put in at login, read without a query
+    public Long extractUserId(String token) {
+        return verify(token, claims -> claims.get("id", Long.class));
+    }
+
+    private <T> T verify(String token, Function<Claims, T> claimsResolver) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T claim = extractClaim(token, claimsResolver);
+            outcome = "success";
+            return claim;
+        } catch (JwtException | IllegalArgumentException e) {
+            outcome = e instanceof ExpiredJwtException ? "expired" : "invalid";
+            throw e;
+        } finally {
+            ServerTiming.recordAuth(sample.stop(timer("verify", outcome)));
+        }
+    }
+
+    // Tags are fixed values only, never the token or the user
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("app.jwt")
+                .description("Signature and verification of JWT")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL statements run by Hibernate for the current HTTP request, with the time
+ * spent executing them. Bound to the request thread by
+ * {@link QueryStatisticsFilter}; statements run while nothing is bound (startup,
+ * scheduled jobs, other threads) are not counted.
+ */
+public final class QueryStatistics {
+
+    // Statements kept for diagnostics, the count goes on past this
+    private static final int MAX_STATEMENTS = 100;
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private final List<String> statements = new ArrayList<>();
+    private int count;
+    private long executionNanos;
+
+    static QueryStatistics bind() {
+        QueryStatistics statistics = new QueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    // Null when no request is being counted on this thread
+    static QueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared(String sql) {
+        count++;
+        if (statements.size() < MAX_STATEMENTS) {
+            statements.add(sql);
+        }
+    }
+
+    void statementExecuted(long nanos) {
+        executionNanos += nanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    public double getExecutionMillis() {
+        return executionNanos / 1_000_000.0;
+    }
+
+    // The first statements, in order
+    public List<String> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+}
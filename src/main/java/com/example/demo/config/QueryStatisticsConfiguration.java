@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import java.util.List;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request SQL statement counting, off unless app.query-stats.enabled is
+ * set: Hibernate then reports every statement it prepares and executes to the
+ * statistics of the current request. Statements sent through JdbcTemplate
+ * bypass Hibernate and are not counted.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.query-stats.enabled", havingValue = "true")
+public class QueryStatisticsConfiguration {
+
+    // Requests running more statements than this are logged
+    @Value("${app.query-stats.warn-threshold:10}")
+    private int warnThreshold;
+
+    // Streamed responses, counted without buffering their body
+    @Value("${app.query-stats.unbuffered-paths:/commentaries/stream,/notes/export,/notes/bulk,/admin/jfr/**}")
+    private List<String> unbufferedPaths;
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatisticsHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+        };
+    }
+
+    @Bean
+    public QueryStatisticsFilter queryStatisticsFilter() {
+        return new QueryStatisticsFilter(warnThreshold, unbufferedPaths);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements of each request and reports them in the
+ * X-Query-Count and X-Query-Time (milliseconds) response headers. The body is
+ * buffered so that statements run while it is serialized, lazy loads
+ * included, are counted, which is why this is for development and tests only.
+ * Streamed responses (event streams, exports, bulk imports, recording
+ * downloads) are counted without buffering: their headers are only set if
+ * nothing was sent yet, and they are still logged above the threshold. They
+ * are matched by path: an event stream also answers clients that accept any
+ * type, and a buffer in place when it starts would hold all its events.
+ * Requests that accept text/event-stream are left alone.
+ */
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-Query-Count";
+    public static final String TIME_HEADER = "X-Query-Time";
+
+    // Request attribute holding the QueryStatistics of the request
+    public static final String ATTRIBUTE = QueryStatistics.class.getName();
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatisticsFilter.class);
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final int warnThreshold;
+
+    private final List<String> unbufferedPaths;
+
+    public QueryStatisticsFilter(int warnThreshold, List<String> unbufferedPaths) {
+        this.warnThreshold = warnThreshold;
+        this.unbufferedPaths = unbufferedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStatistics statistics = QueryStatistics.bind();
+        request.setAttribute(ATTRIBUTE, statistics);
+        String path = request.getRequestURI();
+        if (unbufferedPaths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path))) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                QueryStatistics.unbind();
+                if (!response.isCommitted()) {
+                    setHeaders(response, statistics);
+                }
+                logIfAboveThreshold(request, statistics);
+            }
+            return;
+        }
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            QueryStatistics.unbind();
+            setHeaders(wrapper, statistics);
+            logIfAboveThreshold(request, statistics);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void setHeaders(HttpServletResponse response, QueryStatistics statistics) {
+        response.setHeader(COUNT_HEADER, String.valueOf(statistics.getCount()));
+        response.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getExecutionMillis()));
+    }
+
+    private void logIfAboveThreshold(HttpServletRequest request, QueryStatistics statistics) {
+        if (statistics.getCount() > warnThreshold) {
+            log.warn("{} {} ran {} SQL statements in {} ms", request.getMethod(), request.getRequestURI(),
+                    statistics.getCount(), String.format(Locale.ROOT, "%.1f", statistics.getExecutionMillis()));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.config;
+
+import java.util.Locale;
+
+/**
+ * Time spent by the current HTTP request in each of its phases: JWT and
+ * password checks (auth), JDBC execution (db), the rest of the controller and
+ * service code (service) and the writing of the response body
+ * (serialization). Bound to the request thread by {@link ServerTimingFilter};
+ * when nothing is bound, recording is a thread-local lookup and nothing else.
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private long authNanos;
+    private long dbNanos;
+    private int dbStatements;
+    // When the response body started to be written, 0 until then
+    private long serializationStart;
+    // When the phases were last closed, by the header or the end of the request
+    private long end;
+
+    static ServerTiming bind() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public static void recordAuth(long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.authNanos += nanos;
+        }
+    }
+
+    static void recordDb(long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.dbNanos += nanos;
+            timing.dbStatements++;
+        }
+    }
+
+    static void serializationStarted() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && timing.serializationStart == 0) {
+            timing.serializationStart = System.nanoTime();
+        }
+    }
+
+    void stop() {
+        end = System.nanoTime();
+    }
+
+    double totalMillis() {
+        return millis(end - start);
+    }
+
+    double authMillis() {
+        return millis(authNanos);
+    }
+
+    double dbMillis() {
+        return millis(dbNanos);
+    }
+
+    // What is left of the handling once JWT and JDBC time are taken out
+    double serviceMillis() {
+        long handled = (serializationStart != 0 ? serializationStart : end) - start;
+        return millis(Math.max(0, handled - authNanos - dbNanos));
+    }
+
+    double serializationMillis() {
+        return serializationStart == 0 ? 0 : millis(end - serializationStart);
+    }
+
+    int dbStatements() {
+        return dbStatements;
+    }
+
+    // Value of the Server-Timing header, durations in milliseconds
+    String header() {
+        return String.format(Locale.ROOT,
+                "auth;dur=%.2f, db;dur=%.2f;desc=\"statements: %d\", service;dur=%.2f, serialization;dur=%.2f, total;dur=%.2f",
+                authMillis(), dbMillis(), dbStatements, serviceMillis(), serializationMillis(), totalMillis());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
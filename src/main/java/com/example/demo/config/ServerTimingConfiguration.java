@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Server-Timing header on every response, off unless app.server-timing.enabled
+ * is set. When off, neither the filter nor the Hibernate listener is
+ * installed, and the recording calls (JwtService, {@link ServerTimingAdvice})
+ * find no request to record into.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfiguration {
+
+    // Share of the requests logged with their timings, from 0 to 1
+    @Value("${app.server-timing.log-sample-rate:0.01}")
+    private double logSampleRate;
+
+    // First of all filters, so the total covers security and the other filters
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(logSampleRate));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer serverTimingHibernateProperties() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                JdbcTimingListener.class.getName());
+    }
+}
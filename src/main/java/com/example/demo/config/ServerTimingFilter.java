@@ -0,0 +1,182 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Times each request and sends its phases in a Server-Timing header, and logs
+ * a sample of the requests as key=value lines. The body is not buffered: the
+ * header is added just before the response is committed, so a body larger
+ * than the response buffer, or a streamed one, only has its serialization
+ * time up to that point.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final double logSampleRate;
+
+    public ServerTimingFilter(double logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.bind();
+        TimedResponse timedResponse = new TimedResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            ServerTiming.unbind();
+            timedResponse.addHeader();
+            timing.stop();
+            if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log(request, response, timing);
+            }
+        }
+    }
+
+    // URI templates rather than URIs keep the lines easy to aggregate
+    private void log(HttpServletRequest request, HttpServletResponse response, ServerTiming timing) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        log.info(String.format(Locale.ROOT,
+                "method=%s uri=%s status=%d total_ms=%.2f auth_ms=%.2f db_ms=%.2f db_statements=%d service_ms=%.2f serialization_ms=%.2f",
+                request.getMethod(), pattern != null ? pattern : "UNKNOWN", response.getStatus(), timing.totalMillis(),
+                timing.authMillis(), timing.dbMillis(), timing.dbStatements(), timing.serviceMillis(),
+                timing.serializationMillis()));
+    }
+
+    // Adds the header the first time the response is about to be committed
+    private static final class TimedResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+        private boolean headerAdded;
+        private TimedOutputStream outputStream;
+
+        TimedResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void addHeader() {
+            if (headerAdded) {
+                return;
+            }
+            headerAdded = true;
+            if (!isCommitted()) {
+                timing.stop();
+                setHeader(HEADER, timing.header());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new TimedOutputStream(super.getOutputStream(), this);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeader();
+            super.sendRedirect(location);
+        }
+    }
+
+    // The container commits when its buffer overflows or on flush
+    private static final class TimedOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final TimedResponse response;
+        private long written;
+
+        TimedOutputStream(ServletOutputStream delegate, TimedResponse response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            beforeWrite(1);
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            beforeWrite(len);
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            response.addHeader();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.addHeader();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+
+        private void beforeWrite(int length) {
+            written += length;
+            if (written >= response.getBufferSize()) {
+                response.addHeader();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs at most one computation per key at a time: a caller asking for a key
+ * already being computed waits for that computation and gets its result, or
+ * its exception, instead of starting its own. The first caller computes on its
+ * own thread, in its own request and transaction. The others keep what their
+ * request already holds while they wait: with the session open in view, a
+ * query run before the call keeps its pooled connection until the response.
+ * Call it before any query and outside of transactions.
+ *
+ * Nothing is kept once the computation is over, a caller arriving later starts
+ * a new one. A caller can still get a value read shortly before its arrival,
+ * as if its request had come first, which only suits idempotent reads.
+ *
+ * A disabled flight calls the loader every time.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+    private final Counter led;
+    private final Counter coalesced;
+
+    private final boolean enabled;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.led = counter(meterRegistry, name, "led");
+        this.coalesced = counter(meterRegistry, name, "coalesced");
+        this.enabled = true;
+    }
+
+    private SingleFlight() {
+        this.led = null;
+        this.coalesced = null;
+        this.enabled = false;
+    }
+
+    public static <K, V> SingleFlight<K, V> disabled() {
+        return new SingleFlight<>();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public V run(K key, Function<K, V> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            coalesced.increment();
+            return await(inFlight);
+        }
+        led.increment();
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        // Removed first, so that no caller joins a computation already over
+        flights.remove(key, flight);
+        flight.complete(value);
+        return value;
+    }
+
+    private V await(CompletableFuture<V> inFlight) {
+        try {
+            return inFlight.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a computation in flight", e);
+        }
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String role) {
+        return Counter.builder("app.single.flight.requests")
+                .description("Calls that ran a computation (led) or shared one already in flight (coalesced)")
+                .tag("flight", name)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
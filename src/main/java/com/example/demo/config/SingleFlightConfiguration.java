@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.entity.User;
+import com.example.demo.entity.dto.CommentaryDTO;
+import com.example.demo.entity.dto.GameDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalescing of identical concurrent reads, one flight per endpoint, each
+ * turned on or off with app.single-flight.&lt;name&gt;.enabled.
+ */
+@Configuration
+public class SingleFlightConfiguration {
+
+    // GET /users/{slug}, by slug
+    @Bean
+    public SingleFlight<String, User> usersBySlugFlight(MeterRegistry meterRegistry,
+            @Value("${app.single-flight.users-by-slug.enabled:false}") boolean enabled) {
+        return flight("users-by-slug", enabled, meterRegistry);
+    }
+
+    // GET /commentaries/{id}, by commentary id
+    @Bean
+    public SingleFlight<Long, CommentaryDTO> commentaryCardsFlight(MeterRegistry meterRegistry,
+            @Value("${app.single-flight.commentary-cards.enabled:false}") boolean enabled) {
+        return flight("commentary-cards", enabled, meterRegistry);
+    }
+
+    // GET /games, by user id once the token claim is checked
+    @Bean
+    public SingleFlight<Long, List<GameDTO>> gameListsFlight(MeterRegistry meterRegistry,
+            @Value("${app.single-flight.game-lists.enabled:false}") boolean enabled) {
+        return flight("game-lists", enabled, meterRegistry);
+    }
+
+    private <K, V> SingleFlight<K, V> flight(String name, boolean enabled, MeterRegistry meterRegistry) {
+        return enabled ? new SingleFlight<>(name, meterRegistry) : SingleFlight.disabled();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache of one node in front of a shared source, the database behind the
+ * loader: the first tier holds up to maxSize recently used values in memory
+ * for at most ttl, the second tier answers the misses. Writers call
+ * {@link #invalidate} once their change is committed (right away, or after
+ * the commit of the current transaction), which drops the key here and
+ * publishes it to the other nodes through the transport.
+ *
+ * Entries are versioned by the last invalidation of their key known when they
+ * were loaded, and the key keeps that version once dropped. An invalidation
+ * no newer than the version is ignored: it was already applied before the
+ * value was read, so a late or repeated one never evicts a newer value. A
+ * value whose key is invalidated while it loads is returned but not kept.
+ *
+ * A disabled cache calls the loader every time and publishes nothing.
+ */
+public class TwoTierCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    // A null value marks a dropped key, kept for its version
+    private record Entry<V>(V value, long version, long expiresAt) {
+    }
+
+    private final String name;
+
+    private final CacheInvalidationTransport transport;
+
+    private final long ttlNanos;
+
+    private final Map<String, Entry<V>> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter applied;
+    private final Counter ignored;
+
+    public TwoTierCache(String name, int maxSize, Duration ttl, CacheInvalidationTransport transport,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.transport = transport;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = counter(meterRegistry, "app.cache.gets", "result", "hit");
+        this.misses = counter(meterRegistry, "app.cache.gets", "result", "miss");
+        this.applied = counter(meterRegistry, "app.cache.invalidations", "outcome", "applied");
+        this.ignored = counter(meterRegistry, "app.cache.invalidations", "outcome", "ignored");
+        if (meterRegistry != null) {
+            Gauge.builder("app.cache.size", this, TwoTierCache::size)
+                    .description("Entries and dropped keys held by a cache")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+        }
+        if (transport != null) {
+            transport.subscribe((cacheName, key, version) -> {
+                if (name.equals(cacheName)) {
+                    apply(key, version);
+                }
+            });
+        }
+    }
+
+    public static <K, V> TwoTierCache<K, V> disabled(String name) {
+        return new TwoTierCache<>(name, 0, Duration.ZERO, null, null);
+    }
+
+    public boolean isEnabled() {
+        return transport != null;
+    }
+
+    // Null values are returned but not cached
+    public V get(K key, Function<K, V> loader) {
+        if (transport == null) {
+            return loader.apply(key);
+        }
+        String id = String.valueOf(key);
+        long version;
+        synchronized (this) {
+            Entry<V> entry = entries.get(id);
+            if (entry != null && entry.value() != null && entry.expiresAt() - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.value();
+            }
+            version = entry == null ? 0 : entry.version();
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                Entry<V> current = entries.get(id);
+                if ((current == null ? 0 : current.version()) == version) {
+                    entries.put(id, new Entry<>(value, version, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        if (transport == null) {
+            return;
+        }
+        String id = String.valueOf(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(id);
+                }
+            });
+        } else {
+            publish(id);
+        }
+    }
+
+    // Without the transport, the other nodes keep their entry until it expires
+    private void publish(String id) {
+        try {
+            apply(id, transport.publish(name, id));
+        } catch (RuntimeException e) {
+            log.warn("Cannot publish the invalidation of {} in cache {}", id, name, e);
+            synchronized (this) {
+                entries.remove(id);
+            }
+        }
+    }
+
+    synchronized boolean apply(String key, long version) {
+        Entry<V> current = entries.get(key);
+        if (current != null && current.version() >= version) {
+            ignored.increment();
+            return false;
+        }
+        entries.put(key, new Entry<>(null, version, 0));
+        applied.increment();
+        return true;
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String meter, String tag, String value) {
+        return meterRegistry == null ? null
+                : Counter.builder(meter).tag("cache", name).tag(tag, value).register(meterRegistry);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, which on
+ * Java 21 happens when they block inside a synchronized block or a native
+ * frame, typically in a JDBC driver or connection pool. Pinned threads hold a
+ * carrier for the whole wait, so a few hot sites are enough to cap throughput
+ * at the carrier count.
+ *
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process. Each pinning
+ * site (the top of the stack, JDK scheduling frames left out) is logged with
+ * its stack the first time it is seen, then counted; the counts are logged
+ * periodically and at shutdown. Only active in virtual-thread mode.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int SITE_DEPTH = 12;
+
+    // Frames of the JDK parking machinery, on top of every pinned stack
+    private static final List<String> SCHEDULING_FRAMES = List.of("java.lang.VirtualThread", "java.lang.Thread.",
+            "jdk.internal.", "java.util.concurrent.locks.");
+
+    @Value("${app.virtual-threads.pinning-threshold:PT0.02S}")
+    private Duration threshold = Duration.ofMillis(20);
+
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    // Total at the last report, nothing is logged while it does not move
+    private volatile long reported;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        report();
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    // Number of pins per site since startup
+    public Map<String, Long> getPinnedSites() {
+        return sites.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.virtual-threads.pinning-report-interval:PT1M}")
+    public void report() {
+        long total = sites.values().stream().mapToLong(LongAdder::sum).sum();
+        if (total == reported) {
+            return;
+        }
+        reported = total;
+        String summary = getPinnedSites().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .map(entry -> entry.getValue() + " x " + entry.getKey().lines().findFirst().orElse("?").trim())
+                .collect(Collectors.joining("\n  ", "\n  ", ""));
+        log.warn("{} virtual thread pins since startup, by site:{}", total, summary);
+    }
+
+    private void record(RecordedEvent event) {
+        String site = site(event.getStackTrace());
+        LongAdder count = sites.get(site);
+        if (count == null) {
+            LongAdder created = new LongAdder();
+            count = sites.putIfAbsent(site, created);
+            if (count == null) {
+                count = created;
+                log.warn("Virtual thread pinned for {} ms at\n{}", event.getDuration().toMillis(), site);
+            }
+        }
+        count.increment();
+    }
+
+    private String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\tat <unknown>";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(" + frame.getLineNumber() + ")")
+                .dropWhile(frame -> SCHEDULING_FRAMES.stream().anyMatch(frame::startsWith))
+                .limit(SITE_DEPTH)
+                .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.demo.service.WarmUpRunner;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Measures the first traffic whether or not the warm-up is enabled, so that
+ * both kinds of deploy can be compared.
+ */
+@Configuration
+public class WarmUpConfiguration {
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    // Requests timed in app.first.traffic after the application is ready
+    @Value("${app.first-traffic.requests:1000}")
+    private int firstTrafficRequests;
+
+    // Right after the Server-Timing filter, so the time covers security and the other filters
+    @Bean
+    public FilterRegistrationBean<FirstTrafficFilter> firstTrafficFilter(ApplicationAvailability availability,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<FirstTrafficFilter> registration = new FilterRegistrationBean<>(
+                new FirstTrafficFilter(availability, meterRegistry, warmUpRunner::isWarmedUp, firstTrafficRequests));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -13,6 +13,7 @@ public class WebMvcConfig implements WebMvcConfigurer {
         .allowedOrigins("http://localhost:4200")
         .allowedMethods("GET", "POST", "PUT", "DELETE", "HEAD", "OPTIONS")
         .allowedHeaders("Content-Type", "Date", "Total-Count", "loginInfo", "Authorization")
+        .exposedHeaders(QueryStatisticsFilter.COUNT_HEADER, QueryStatisticsFilter.TIME_HEADER)
         .allowCredentials(true)
         .maxAge(3600);
     }
@@ -1,17 +1,27 @@
 package com.example.demo.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import java.util.List;
+import com.example.demo.config.SingleFlight;
+import com.example.demo.service.CommentaryStreamService;
 import com.example.demo.service.CommentaryService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import com.example.demo.entity.Commentary;
+import com.example.demo.entity.dto.CommentaryDTO;
 import org.springframework.web.bind.annotation.RequestBody;
 
 
@@ -22,22 +32,69 @@ public class CommentaryController {
     @Autowired
     private CommentaryService commentaryService;
 
+    @Autowired
+    private CommentaryStreamService commentaryStreamService;
+
+    @Autowired
+    private SingleFlight<Long, CommentaryDTO> commentaryCardsFlight = SingleFlight.disabled();
+
     @Operation(summary = "Get all commentaries", description = "Get all commentaries")
     @GetMapping("")
-    public List<Commentary> getAll() {
-        return this.commentaryService.getAll();
+    public List<CommentaryDTO> getAll(@RequestParam(required = false) Integer gameId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return this.commentaryService.getPage(gameId, page, size);
+    }
+
+    @Operation(summary = "Stream new commentaries of a game", description = "Server-Sent Events feed, resumable with the Last-Event-ID header")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam int gameId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        try {
+            return ResponseEntity.ok(this.commentaryStreamService.subscribe(gameId, lastEventId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @Operation(summary = "Get top-level commentaries of a game", description = "Paginated, newest first, with the number of replies of each thread")
+    @GetMapping("/games/{gameId}")
+    public List<CommentaryDTO> getTopLevel(@PathVariable int gameId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return this.commentaryService.getTopLevelPage(gameId, page, size);
+    }
+
+    @Operation(summary = "Get a commentary thread", description = "The commentary and all its replies in depth-first order")
+    @GetMapping("/{id}/thread")
+    public List<CommentaryDTO> getThread(@PathVariable Long id) {
+        return this.commentaryService.getThread(id);
     }
 
     @Operation(summary = "Get commentary by id", description = "Get commentary by id")
     @GetMapping("/{id}")
-    public Commentary getOneById(@PathVariable Long id) {
-        return this.commentaryService.getOneById(id);
+    public CommentaryDTO getOneById(@PathVariable Long id) {
+        return this.commentaryCardsFlight.run(id, this.commentaryService::getCardById);
     }
 
     @Operation(summary = "Create commentary", description = "Create commentary")
     @PostMapping("")
-    public Commentary createCommentary(@RequestBody Commentary commentary) {
-        return this.commentaryService.createCommentary(commentary);
+    public ResponseEntity<?> createCommentary(@RequestBody Commentary commentary) {
+        try {
+            return ResponseEntity.ok(this.commentaryService.createCommentary(commentary));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Reply to a commentary", description = "Reply to a commentary")
+    @PostMapping("/{id}/replies")
+    public ResponseEntity<?> reply(@PathVariable Long id, @RequestBody Commentary commentary) {
+        try {
+            return ResponseEntity.ok(this.commentaryService.reply(id, commentary));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+        }
     }
 
     @Operation(summary = "Delete commentary", description = "Delete commentary")
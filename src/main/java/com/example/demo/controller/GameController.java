@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.demo.config.SingleFlight;
 import com.example.demo.entity.dto.GameDTO;
 import com.example.demo.service.UserService;
 
@@ -22,6 +23,9 @@ public class GameController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SingleFlight<Long, List<GameDTO>> gameListsFlight = SingleFlight.disabled();
+
     @PostMapping("/add")
     public ResponseEntity<?> addGameToList(@RequestParam Long gameId,
             @RequestHeader("Authorization") String token) {
@@ -33,11 +37,13 @@ public class GameController {
     @GetMapping("")
     public ResponseEntity<List<GameDTO>> getListGames(@RequestParam Long user_id,
             @RequestHeader("Authorization") String token) {
-        Long userIdToken = userService.getIdInToken(token);
+        // Checked without a query: with the session open in view, a first query
+        // would hold a pooled connection while this request waits for the flight
+        Long userIdToken = userService.getIdClaimInToken(token);
         if (!user_id.equals(userIdToken)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
-        List<GameDTO> games = userService.getList(user_id);
+        List<GameDTO> games = gameListsFlight.run(user_id, userService::getList);
         return new ResponseEntity<>(games, HttpStatus.OK);
     }
 
@@ -0,0 +1,110 @@
+package com.example.demo.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.entity.dto.JfrRecordingDTO;
+import com.example.demo.service.JfrRecordingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Flight recordings of the running JVM, for admin users only (see SecurityConfiguration)
+@RestController
+@RequestMapping("/admin/jfr")
+public class JfrController {
+
+    @Autowired
+    private JfrRecordingService jfrRecordingService;
+
+    @Operation(summary = "Start a flight recording", description = "profile is default or profile, duration an ISO-8601 duration")
+    @PostMapping("/recordings")
+    public ResponseEntity<?> start(@RequestParam(defaultValue = "default") String profile,
+            @RequestParam(defaultValue = "PT60S") Duration duration) throws IOException, ParseException {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(jfrRecordingService.start(profile, duration));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "List flight recordings", description = "On-demand recordings and the continuous one")
+    @GetMapping("/recordings")
+    public ResponseEntity<List<JfrRecordingDTO>> getAll() {
+        return ResponseEntity.ok(jfrRecordingService.getRecordings());
+    }
+
+    @Operation(summary = "Get a flight recording", description = "Its state and size")
+    @GetMapping("/recordings/{id}")
+    public ResponseEntity<JfrRecordingDTO> getOne(@PathVariable long id) {
+        return jfrRecordingService.getRecording(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Download a flight recording", description = "The .jfr file once the recording has stopped")
+    @GetMapping("/recordings/{id}/file")
+    public void download(@PathVariable long id, HttpServletResponse response) throws IOException {
+        Optional<Path> file;
+        try {
+            file = jfrRecordingService.getFile(id);
+        } catch (IllegalStateException e) {
+            response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+            return;
+        }
+        if (file.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        send(file.get(), response);
+    }
+
+    @Operation(summary = "Delete a flight recording", description = "Stops it if needed and deletes its file")
+    @DeleteMapping("/recordings/{id}")
+    public ResponseEntity<Void> delete(@PathVariable long id) throws IOException {
+        return jfrRecordingService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @Operation(summary = "Dump the continuous flight recording", description = "The last minutes of events as a .jfr file")
+    @GetMapping("/continuous")
+    public void dumpContinuous(HttpServletResponse response) throws IOException {
+        Path file;
+        try {
+            file = jfrRecordingService.dumpContinuous();
+        } catch (IllegalStateException e) {
+            response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+            return;
+        }
+        try {
+            send(file, response);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Copied from disk to the response in small chunks, never held in memory
+    private void send(Path file, HttpServletResponse response) throws IOException {
+        response.setContentType("application/octet-stream");
+        response.setContentLengthLong(Files.size(file));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"");
+        Files.copy(file, response.getOutputStream());
+        response.getOutputStream().flush();
+    }
+}
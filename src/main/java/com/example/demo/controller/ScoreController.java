@@ -1,8 +1,28 @@
 package com.example.demo.controller;
 
 import com.example.demo.entity.Score;
+import com.example.demo.entity.dto.GameRankingDTO;
+import com.example.demo.entity.dto.ScoreBucketDTO;
+import com.example.demo.entity.dto.ScoreImportOutcomeDTO;
+import com.example.demo.entity.dto.ScoreStandingDTO;
+import com.example.demo.entity.dto.ScoreTrendPointDTO;
+import com.example.demo.service.GameRankingService;
+import com.example.demo.service.ScoreDistributionService;
+import com.example.demo.service.ScoreExportService;
+import com.example.demo.service.ScoreHistoryService;
+import com.example.demo.service.ScoreImportService;
 import com.example.demo.service.ScoreService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,11 +30,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/notes")
@@ -23,26 +53,170 @@ public class ScoreController {
     @Autowired
     private ScoreService scoreService;
 
+    @Autowired
+    private GameRankingService gameRankingService;
+
+    @Autowired
+    private ScoreDistributionService scoreDistributionService;
+
+    @Autowired
+    private ScoreImportService scoreImportService;
+
+    @Autowired
+    private ScoreHistoryService scoreHistoryService;
+
+    @Autowired
+    private ScoreExportService scoreExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public List<Score> getAllScores() {
         return scoreService.findAll();
     }
 
+    // Streams every score, or those of one game, compressed when the client accepts gzip
+    @GetMapping("/export")
+    public void exportScores(@RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long gameId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        if (!"csv".equalsIgnoreCase(format)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Format d'export non supporté : " + format);
+            return;
+        }
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"scores.csv\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192)) {
+                scoreExportService.exportCsv(gameId, out);
+            }
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        scoreExportService.exportCsv(gameId, out);
+        out.flush();
+    }
+
+    @GetMapping("/games/top")
+    public List<GameRankingDTO> getTopRatedGames(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return gameRankingService.getTopRated(page, Math.min(Math.max(size, 1), 100));
+    }
+
+    @GetMapping("/games/{gameId}/rank")
+    public ResponseEntity<GameRankingDTO> getGameRank(@PathVariable Long gameId) {
+        return gameRankingService.getRank(gameId).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/games/{gameId}/standing")
+    public ScoreStandingDTO getStanding(@PathVariable Long gameId, @RequestParam long score) {
+        return scoreDistributionService.getStanding(gameId, score);
+    }
+
+    @GetMapping("/games/{gameId}/histogram")
+    public List<ScoreBucketDTO> getHistogram(@PathVariable Long gameId, @RequestParam(defaultValue = "10") int buckets) {
+        return scoreDistributionService.getHistogram(gameId, Math.min(Math.max(buckets, 1), 100));
+    }
+
+    @GetMapping("/games/{gameId}/neighbours")
+    public Map<String, List<ScoreBucketDTO>> getNeighbours(@PathVariable Long gameId, @RequestParam long score,
+            @RequestParam(defaultValue = "3") int count) {
+        return scoreDistributionService.getNeighbours(gameId, score, Math.min(Math.max(count, 1), 50));
+    }
+
+    // Defaults to the last 7 days by hour, from and to are ISO-8601 instants and step an ISO-8601 duration
+    @GetMapping("/games/{gameId}/trend")
+    public ResponseEntity<?> getTrend(@PathVariable Long gameId, @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to, @RequestParam(defaultValue = "PT1H") Duration step) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(7));
+        try {
+            List<ScoreTrendPointDTO> trend = scoreHistoryService.getTrend(gameId, start, end, step);
+            return ResponseEntity.ok(trend);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Score> getScoreById(@PathVariable Long id) {
         Optional<Score> score = scoreService.findById(id);
-        return score.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return score.map(this::withETag).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public Score createScore(@RequestBody Score score) {
-        return scoreService.save(score);
+    public ResponseEntity<Score> createScore(@RequestBody Score score) {
+        try {
+            return ResponseEntity.ok(scoreService.save(score));
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            // Still contended after retries, or a concurrent request inserted the same user and game first
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // Streams a JSON array of outcomes, one per row, as chunks are committed
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void importScores(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        boolean[] started = { false };
+        try {
+            scoreImportService.importScores(body, outcomes -> {
+                try {
+                    if (!started[0]) {
+                        generator.writeStartArray();
+                        started[0] = true;
+                    }
+                    for (ScoreImportOutcomeDTO outcome : outcomes) {
+                        generator.writeObject(outcome);
+                    }
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            if (!started[0]) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+                return;
+            }
+            // Once outcomes are sent the status is committed, the array then ends with the error
+            generator.writeStartObject();
+            if (e instanceof JsonProcessingException parseError) {
+                if (parseError.getLocation() != null) {
+                    generator.writeNumberField("line", parseError.getLocation().getLineNr());
+                }
+                generator.writeStringField("error", parseError.getOriginalMessage());
+            } else {
+                generator.writeStringField("error", e.getMessage());
+            }
+            generator.writeEndObject();
+        }
+        if (!started[0]) {
+            generator.writeStartArray();
+        }
+        generator.writeEndArray();
+        generator.close();
     }
 
+    // If-Match makes the update conditional on the ETag, keepBest only lets a higher score through
     @PutMapping("/{id}")
-    public ResponseEntity<Score> updateScore(@PathVariable Long id, @RequestBody Score scoreDetails) {
-        Optional<Score> updatedScore = scoreService.update(id, scoreDetails);
-        return updatedScore.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Score> updateScore(@PathVariable Long id, @RequestBody Score scoreDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(defaultValue = "false") boolean keepBest) {
+        try {
+            Optional<Score> updatedScore = scoreService.update(id, scoreDetails, parseVersion(ifMatch), keepBest);
+            return updatedScore.map(this::withETag).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            // Still contended after retries, or the user already has a score for the target game
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -53,4 +227,21 @@ public class ScoreController {
         scoreService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<Score> withETag(Score score) {
+        return ResponseEntity.ok().eTag(String.valueOf(score.getVersion())).body(score);
+    }
+
+    // "*" or no header means any version, an unreadable tag cannot match any version
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim().replaceFirst("^W/", "").replace("\"", "");
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
 }
@@ -21,6 +21,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.demo.entity.User;
 import com.example.demo.service.UserService;
 import com.example.demo.config.JwtService;
+import com.example.demo.config.ServerTiming;
+import com.example.demo.config.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 
 @RestController
@@ -36,6 +40,12 @@ public class UserController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SingleFlight<String, User> usersBySlugFlight = SingleFlight.disabled();
+
     @Operation(summary = "Get all users", description = "Get all users")
     @GetMapping("")
     public List<User> getAll() {
@@ -45,7 +55,7 @@ public class UserController {
     @Operation(summary = "Get one user by slug", description = "Get one user by slug")
     @GetMapping("/{slug}")
     public User getOneBySlug(@PathVariable String slug) {
-        return this.userService.getOneBySlug(slug);
+        return this.usersBySlugFlight.run(slug, this.userService::getOneBySlug);
     }
 
     @Operation(summary = "Create user", description = "Create user")
@@ -54,7 +64,9 @@ public class UserController {
         if (userService.findByemail(user.getEmail()) != null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(user);
         }
+        Timer.Sample sample = Timer.start(meterRegistry);
         String encodePassword = passwordEncoder.encode(user.getPassword());
+        ServerTiming.recordAuth(sample.stop(passwordTimer("encode", "success")));
         user.setPassword(encodePassword);
         this.userService.createUser(user);
         return ResponseEntity.ok(user);
@@ -63,7 +75,7 @@ public class UserController {
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestBody User users) {
         User user = userService.findByemail(users.getEmail());
-        if (user != null && passwordEncoder.matches(users.getPassword(), user.getPassword())) {
+        if (user != null && matches(users.getPassword(), user.getPassword())) {
             //Ajouter audit username pour jwt donc supprimer l'username dans le JWT
             String token = jwtService.generateToken(user.getId(), user.getUsername(), user.getSlug());
             Map<String, Object> response = new HashMap<>();
@@ -98,4 +110,20 @@ public class UserController {
     public void deleteUser(@PathVariable Long id) {
         this.userService.deleteUser(id);
     }
+
+    // BCrypt is by design the slowest step of register and login
+    private boolean matches(String rawPassword, String encodedPassword) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean matches = passwordEncoder.matches(rawPassword, encodedPassword);
+        ServerTiming.recordAuth(sample.stop(passwordTimer("match", matches ? "match" : "mismatch")));
+        return matches;
+    }
+
+    private Timer passwordTimer(String operation, String outcome) {
+        return Timer.builder("app.password")
+                .description("BCrypt hashing and verification of passwords")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
\ No newline at end of file
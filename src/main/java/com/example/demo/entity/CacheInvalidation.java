@@ -0,0 +1,59 @@
+package com.example.demo.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Cache key invalidated by a node, read by the other nodes; the id is the version of the invalidation
+@Entity
+@Table(name = "cache_invalidation", indexes = @Index(name = "idx_cache_invalidation_created", columnList = "created_at"))
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String cacheName;
+
+    @Column(nullable = false)
+    private String cacheKey;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public CacheInvalidation() {
+    }
+
+    public CacheInvalidation(String cacheName, String cacheKey, Instant createdAt) {
+        this.cacheName = cacheName;
+        this.cacheKey = cacheKey;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,17 +1,33 @@
 package com.example.demo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "commentary")
+@Table(name = "commentary", indexes = {
+        @Index(name = "idx_commentary_path", columnList = "path"),
+        @Index(name = "idx_commentary_root_path", columnList = "root_id, path"),
+        @Index(name = "idx_commentary_game_parent", columnList = "game_id, parent_id")
+})
 public class Commentary {
-    
+
+    // Materialized path: one fixed-width base-36 segment per ancestor, so that
+    // sorting by path gives a depth-first thread order and a subtree is a prefix range
+    public static final int PATH_SEGMENT_LENGTH = 8;
+    public static final int MAX_DEPTH = 20;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -19,16 +35,53 @@ public class Commentary {
     private int gameId;
 
 
-    @ManyToOne
+    // Read from the request body, never written: the lazy author is not serialized
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Commentary parent;
+
+    private Long rootId;
+
+    private String path;
+
+    private int depth;
+
+    public Commentary() {
+    }
+
     public Commentary(String content, User user, int gameId) {
         this.content = content;
         this.user = user;
         this.gameId = gameId;
     }
 
+    public Commentary(String content, User user, Commentary parent) {
+        this(content, user, parent.getGameId());
+        this.parent = parent;
+    }
+
+    @PrePersist
+    void prepareThreadPosition() {
+        this.depth = parent == null ? 0 : parent.getDepth() + 1;
+    }
+
+    // The path needs the generated id, the change is flushed as an update with the insert transaction
+    @PostPersist
+    void assignThreadPosition() {
+        this.rootId = parent == null ? id : parent.getRootId();
+        this.path = (parent == null ? "" : parent.getPath()) + pathSegment(id);
+    }
+
+    public static String pathSegment(long id) {
+        String base36 = Long.toString(id, 36);
+        return "0".repeat(Math.max(0, PATH_SEGMENT_LENGTH - base36.length())) + base36 + ".";
+    }
+
     public Long getId() {
         return this.id;
     }
@@ -49,4 +102,38 @@ public class Commentary {
         this.gameId = gameId;
     }
 
+    public User getUser() {
+        return this.user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    @JsonIgnore
+    public Commentary getParent() {
+        return this.parent;
+    }
+
+    public void setParent(Commentary parent) {
+        this.parent = parent;
+    }
+
+    public Long getParentId() {
+        return this.parent == null ? null : this.parent.getId();
+    }
+
+    public Long getRootId() {
+        return this.rootId;
+    }
+
+    @JsonIgnore
+    public String getPath() {
+        return this.path;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
 }
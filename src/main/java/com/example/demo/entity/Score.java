@@ -3,14 +3,19 @@ package com.example.demo.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "score")
+@Table(name = "score", uniqueConstraints = @UniqueConstraint(name = "uk_score_user_game", columnNames = { "user_id", "game_id" }))
 public class Score {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private Long score;
-    private Long UserId;
-    private Long GameId;
+    private Long userId;
+    private Long gameId;
+
+    // Incremented on every write, exposed as the ETag of a score
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
     public Score() {
     }
@@ -18,8 +23,8 @@ public class Score {
     public Score(Long id, Long score, Long userId, Long gameId) {
         this.id = id;
         this.score = score;
-        UserId = userId;
-        GameId = gameId;
+        this.userId = userId;
+        this.gameId = gameId;
     }
 
     public Long getId() {
@@ -39,18 +44,26 @@ public class Score {
     }
 
     public Long getUserId() {
-        return UserId;
+        return userId;
     }
 
     public void setUserId(Long userId) {
-        UserId = userId;
+        this.userId = userId;
     }
 
     public Long getGameId() {
-        return GameId;
+        return gameId;
     }
 
     public void setGameId(Long gameId) {
-        GameId = gameId;
+        this.gameId = gameId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
     }
 }
@@ -0,0 +1,96 @@
+package com.example.demo.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Append-only history of score writes, compacted into ScoreRollup rows once old enough
+@Entity
+@Table(name = "score_event", indexes = {
+        @Index(name = "idx_score_event_game_created", columnList = "game_id, created_at"),
+        @Index(name = "idx_score_event_created", columnList = "created_at")
+})
+public class ScoreEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long gameId;
+
+    private Long userId;
+
+    // Null when the user had no score for the game yet
+    private Long previousScore;
+
+    // Null when the score was removed
+    private Long score;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public ScoreEvent() {
+    }
+
+    public ScoreEvent(Long gameId, Long userId, Long previousScore, Long score, Instant createdAt) {
+        this.gameId = gameId;
+        this.userId = userId;
+        this.previousScore = previousScore;
+        this.score = score;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getPreviousScore() {
+        return previousScore;
+    }
+
+    public void setPreviousScore(Long previousScore) {
+        this.previousScore = previousScore;
+    }
+
+    public Long getScore() {
+        return score;
+    }
+
+    public void setScore(Long score) {
+        this.score = score;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.entity;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Scores given to a game during one hour or one day
+@Entity
+@Table(name = "score_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_score_rollup_bucket",
+        columnNames = { "game_id", "resolution", "bucket_start" }))
+public class ScoreRollup {
+
+    public enum Resolution {
+        HOUR(Duration.ofHours(1)),
+        DAY(Duration.ofDays(1));
+
+        private final Duration length;
+
+        Resolution(Duration length) {
+            this.length = length;
+        }
+
+        public Duration getLength() {
+            return length;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long gameId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8, nullable = false)
+    private Resolution resolution;
+
+    @Column(nullable = false)
+    private Instant bucketStart;
+
+    private long scoreCount;
+
+    private long scoreSum;
+
+    private long minScore;
+
+    private long maxScore;
+
+    public ScoreRollup() {
+    }
+
+    public ScoreRollup(Long gameId, Resolution resolution, Instant bucketStart, long scoreCount, long scoreSum,
+            long minScore, long maxScore) {
+        this.gameId = gameId;
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+        this.scoreCount = scoreCount;
+        this.scoreSum = scoreSum;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(Resolution resolution) {
+        this.resolution = resolution;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getScoreCount() {
+        return scoreCount;
+    }
+
+    public void setScoreCount(long scoreCount) {
+        this.scoreCount = scoreCount;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public long getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(long minScore) {
+        this.minScore = minScore;
+    }
+
+    public long getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(long maxScore) {
+        this.maxScore = maxScore;
+    }
+}
@@ -2,6 +2,8 @@ package com.example.demo.entity;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -47,6 +49,8 @@ public class User {
     @Transient
     private String newPassword;
 
+    // Never taken from a request body, or anyone could register as admin
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private boolean role;
     private String bannerPicture;
     private String profilePicture;
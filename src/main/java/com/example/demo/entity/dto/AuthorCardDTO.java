@@ -0,0 +1,54 @@
+package com.example.demo.entity.dto;
+
+public class AuthorCardDTO {
+
+    private Long id;
+
+    private String username;
+
+    private String slug;
+
+    private String avatar;
+
+    public AuthorCardDTO() {
+    }
+
+    public AuthorCardDTO(Long id, String username, String slug, String avatar) {
+        this.id = id;
+        this.username = username;
+        this.slug = slug;
+        this.avatar = avatar;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public void setSlug(String slug) {
+        this.slug = slug;
+    }
+
+    public String getAvatar() {
+        return avatar;
+    }
+
+    public void setAvatar(String avatar) {
+        this.avatar = avatar;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class CommentaryDTO {
+
+    private Long id;
+
+    private String content;
+
+    private int gameId;
+
+    private AuthorCardDTO author;
+
+    private Long parentId;
+
+    private int depth;
+
+    // Only filled when listing top-level commentaries
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long replyCount;
+
+    public CommentaryDTO() {
+    }
+
+    public CommentaryDTO(Long id, String content, int gameId, AuthorCardDTO author) {
+        this.id = id;
+        this.content = content;
+        this.gameId = gameId;
+        this.author = author;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(int gameId) {
+        this.gameId = gameId;
+    }
+
+    public AuthorCardDTO getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(AuthorCardDTO author) {
+        this.author = author;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public Long getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(Long replyCount) {
+        this.replyCount = replyCount;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.entity.dto;
+
+public class GameRankingDTO {
+
+    private int rank;
+
+    private Long gameId;
+
+    private double rating;
+
+    private double average;
+
+    private long count;
+
+    public GameRankingDTO() {
+    }
+
+    public GameRankingDTO(int rank, Long gameId, double rating, double average, long count) {
+        this.rank = rank;
+        this.gameId = gameId;
+        this.rating = rating;
+        this.average = average;
+        this.count = count;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public void setAverage(double average) {
+        this.average = average;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
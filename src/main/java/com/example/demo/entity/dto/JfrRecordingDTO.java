@@ -0,0 +1,82 @@
+package com.example.demo.entity.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class JfrRecordingDTO {
+
+    private long id;
+
+    private String name;
+
+    // NEW, DELAYED, RUNNING, STOPPED or CLOSED
+    private String state;
+
+    private Instant startTime;
+
+    // Null for the continuous recording, which only has a maximum age
+    private Duration duration;
+
+    // Bytes written so far
+    private long size;
+
+    public JfrRecordingDTO() {
+    }
+
+    public JfrRecordingDTO(long id, String name, String state, Instant startTime, Duration duration, long size) {
+        this.id = id;
+        this.name = name;
+        this.state = state;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.size = size;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
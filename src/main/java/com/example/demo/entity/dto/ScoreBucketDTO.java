@@ -0,0 +1,44 @@
+package com.example.demo.entity.dto;
+
+public class ScoreBucketDTO {
+
+    // Inclusive bounds of the bucket
+    private long from;
+
+    private long to;
+
+    private long players;
+
+    public ScoreBucketDTO() {
+    }
+
+    public ScoreBucketDTO(long from, long to, long players) {
+        this.from = from;
+        this.to = to;
+        this.players = players;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public void setFrom(long from) {
+        this.from = from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public void setTo(long to) {
+        this.to = to;
+    }
+
+    public long getPlayers() {
+        return players;
+    }
+
+    public void setPlayers(long players) {
+        this.players = players;
+    }
+}
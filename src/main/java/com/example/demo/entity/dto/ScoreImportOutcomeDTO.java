@@ -0,0 +1,76 @@
+package com.example.demo.entity.dto;
+
+public class ScoreImportOutcomeDTO {
+
+    public enum Status {
+        INSERTED,
+        UPDATED,
+        UNCHANGED,
+        // A later row of the same request has the same user and game
+        SUPERSEDED,
+        // Missing score, user or game
+        INVALID
+    }
+
+    // Zero-based position of the row in the request
+    private int index;
+
+    private Long id;
+
+    private Long userId;
+
+    private Long gameId;
+
+    private Status status;
+
+    public ScoreImportOutcomeDTO() {
+    }
+
+    public ScoreImportOutcomeDTO(int index, Long id, Long userId, Long gameId, Status status) {
+        this.index = index;
+        this.id = id;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.status = status;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
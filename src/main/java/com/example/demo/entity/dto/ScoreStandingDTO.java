@@ -0,0 +1,100 @@
+package com.example.demo.entity.dto;
+
+public class ScoreStandingDTO {
+
+    private Long gameId;
+
+    private long score;
+
+    // 1 + number of players with a strictly higher score
+    private long rank;
+
+    private long playersAbove;
+
+    private long playersTied;
+
+    private long playersBelow;
+
+    private long totalPlayers;
+
+    // Share of players with a strictly lower score, from 0 to 100
+    private double percentile;
+
+    public ScoreStandingDTO() {
+    }
+
+    public ScoreStandingDTO(Long gameId, long score, long playersAbove, long playersTied, long playersBelow) {
+        this.gameId = gameId;
+        this.score = score;
+        this.playersAbove = playersAbove;
+        this.playersTied = playersTied;
+        this.playersBelow = playersBelow;
+        this.totalPlayers = playersAbove + playersTied + playersBelow;
+        this.rank = playersAbove + 1;
+        this.percentile = totalPlayers == 0 ? 0 : 100.0 * playersBelow / totalPlayers;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public void setScore(long score) {
+        this.score = score;
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    public void setRank(long rank) {
+        this.rank = rank;
+    }
+
+    public long getPlayersAbove() {
+        return playersAbove;
+    }
+
+    public void setPlayersAbove(long playersAbove) {
+        this.playersAbove = playersAbove;
+    }
+
+    public long getPlayersTied() {
+        return playersTied;
+    }
+
+    public void setPlayersTied(long playersTied) {
+        this.playersTied = playersTied;
+    }
+
+    public long getPlayersBelow() {
+        return playersBelow;
+    }
+
+    public void setPlayersBelow(long playersBelow) {
+        this.playersBelow = playersBelow;
+    }
+
+    public long getTotalPlayers() {
+        return totalPlayers;
+    }
+
+    public void setTotalPlayers(long totalPlayers) {
+        this.totalPlayers = totalPlayers;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+}
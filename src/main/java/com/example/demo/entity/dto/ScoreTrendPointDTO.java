@@ -0,0 +1,90 @@
+package com.example.demo.entity.dto;
+
+import java.time.Instant;
+
+public class ScoreTrendPointDTO {
+
+    private Instant start;
+
+    // Coarsest stored resolution the point was computed from: RAW, HOUR or DAY
+    private String resolution;
+
+    private long count;
+
+    private long sum;
+
+    private long min;
+
+    private long max;
+
+    private double average;
+
+    public ScoreTrendPointDTO() {
+    }
+
+    public ScoreTrendPointDTO(Instant start, String resolution, long count, long sum, long min, long max) {
+        this.start = start;
+        this.resolution = resolution;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.average = count == 0 ? 0 : (double) sum / count;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public void setSum(long sum) {
+        this.sum = sum;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public void setMin(long min) {
+        this.min = min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public void setMax(long max) {
+        this.max = max;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public void setAverage(double average) {
+        this.average = average;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.CacheInvalidation;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    @Query("select max(i.id) from CacheInvalidation i")
+    Long findMaxId();
+
+    // New rows, and rows of ids skipped earlier that may have been committed since
+    @Query("select i from CacheInvalidation i where i.id > :id or i.id in :missing order by i.id")
+    List<CacheInvalidation> findAfter(@Param("id") long id, @Param("missing") Collection<Long> missing);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidation i where i.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -1,6 +1,14 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.entity.Commentary;
@@ -8,6 +16,63 @@ import com.example.demo.entity.Commentary;
 
 @Repository
 public interface CommentaryRepository extends JpaRepository<Commentary, Long>{
-    
-    
+
+    // Row projections read the author foreign key only, authors are hydrated separately in one batch
+    interface CommentaryRow {
+        Long getId();
+
+        String getContent();
+
+        int getGameId();
+
+        Long getUserId();
+
+        Long getParentId();
+
+        Long getRootId();
+
+        String getPath();
+
+        int getDepth();
+    }
+
+    String ROW = "select c.id as id, c.content as content, c.gameId as gameId, c.user.id as userId, "
+            + "c.parent.id as parentId, c.rootId as rootId, c.path as path, c.depth as depth from Commentary c ";
+
+    @Query(ROW + "order by c.id desc")
+    List<CommentaryRow> findRows(Pageable pageable);
+
+    @Query(ROW + "where c.gameId = :gameId order by c.id desc")
+    List<CommentaryRow> findRowsByGameId(@Param("gameId") int gameId, Pageable pageable);
+
+    @Query(ROW + "where c.id = :id")
+    Optional<CommentaryRow> findRowById(@Param("id") Long id);
+
+    @Query(ROW + "where c.gameId = :gameId and c.parent is null order by c.id desc")
+    List<CommentaryRow> findTopLevelRowsByGameId(@Param("gameId") int gameId, Pageable pageable);
+
+    // Whole thread in depth-first order, served by the (root_id, path) index
+    @Query(ROW + "where c.rootId = :rootId order by c.path")
+    List<CommentaryRow> findThreadRows(@Param("rootId") Long rootId);
+
+    // Subtree in depth-first order, a prefix range on the path index
+    @Query(ROW + "where c.path like :pathPattern order by c.path")
+    List<CommentaryRow> findSubtreeRows(@Param("pathPattern") String pathPattern);
+
+    @Query("select c.rootId as rootId, count(c) as replyCount from Commentary c "
+            + "where c.rootId in :rootIds and c.parent is not null group by c.rootId")
+    List<ReplyCount> countRepliesByRootIds(@Param("rootIds") Collection<Long> rootIds);
+
+    interface ReplyCount {
+        Long getRootId();
+
+        long getReplyCount();
+    }
+
+    @Query("select max(c.depth) from Commentary c where c.path like :pathPattern")
+    Integer findMaxDepthByPath(@Param("pathPattern") String pathPattern);
+
+    @Modifying
+    @Query("delete from Commentary c where c.path like :pathPattern and c.depth = :depth")
+    int deleteByPathAndDepth(@Param("pathPattern") String pathPattern, @Param("depth") int depth);
 }
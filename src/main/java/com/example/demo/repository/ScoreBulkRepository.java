@@ -0,0 +1,94 @@
+package com.example.demo.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.entity.Score;
+
+/**
+ * Set-based score access that JPA cannot express: batched upserts on the
+ * unique (user_id, game_id) key and forward-only scans of the whole table. The
+ * upsert depends on the database, MySQL and MariaDB use INSERT ... ON DUPLICATE
+ * KEY UPDATE, H2 uses MERGE ... USING. Both bump the version of the rows they
+ * update.
+ */
+@Repository
+public class ScoreBulkRepository {
+
+    private static final String ON_DUPLICATE_KEY = "insert into score (score, user_id, game_id, version) values (?, ?, ?, 0) "
+            + "on duplicate key update version = version + 1, score = values(score)";
+
+    private static final Map<String, String> UPSERTS = Map.of(
+            "MySQL", ON_DUPLICATE_KEY,
+            "MariaDB", ON_DUPLICATE_KEY,
+            "H2", "merge into score t using (values (cast(? as bigint), cast(? as bigint), cast(? as bigint))) "
+                    + "s(score, user_id, game_id) on t.user_id = s.user_id and t.game_id = s.game_id "
+                    + "when matched then update set score = s.score, version = t.version + 1 "
+                    + "when not matched then insert (score, user_id, game_id, version) values (s.score, s.user_id, s.game_id, 0)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private volatile String upsertSql;
+
+    // Each pair is a { userId, gameId } array, matched as a row value
+    public List<Score> findByUserIdAndGameIdPairs(List<Object[]> pairs) {
+        return namedParameterJdbcTemplate.query(
+                "select id, score, user_id, game_id from score where (user_id, game_id) in (:pairs)",
+                Map.of("pairs", pairs),
+                (rs, rowNum) -> new Score(rs.getLong("id"), rs.getLong("score"), rs.getLong("user_id"), rs.getLong("game_id")));
+    }
+
+    /**
+     * Hands every score row, optionally of one game, to the handler in id order
+     * without building entities. The rows come from a forward-only cursor read
+     * {@code fetchSize} at a time; MySQL only honours the fetch size with
+     * useCursorFetch=true on the connection URL.
+     */
+    public void streamScores(Long gameId, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "select id, score, user_id, game_id from score" + (gameId == null ? "" : " where game_id = ?")
+                            + " order by id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            if (gameId != null) {
+                statement.setLong(1, gameId);
+            }
+            return statement;
+        }, handler);
+    }
+
+    public void upsert(List<Score> scores) {
+        jdbcTemplate.batchUpdate(upsertSql(), scores, scores.size(), (statement, score) -> {
+            statement.setLong(1, score.getScore());
+            statement.setLong(2, score.getUserId());
+            statement.setLong(3, score.getGameId());
+        });
+    }
+
+    private String upsertSql() {
+        if (upsertSql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            String sql = UPSERTS.get(product);
+            if (sql == null) {
+                throw new IllegalStateException("No score upsert statement for database " + product);
+            }
+            upsertSql = sql;
+        }
+        return upsertSql;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.ScoreEvent;
+import com.example.demo.repository.ScoreRollupRepository.ScoreAggregate;
+
+@Repository
+public interface ScoreEventRepository extends JpaRepository<ScoreEvent, Long> {
+
+    interface ScorePoint {
+        Long getGameId();
+
+        Instant getCreatedAt();
+
+        Long getScore();
+    }
+
+    @Query("select e.gameId as gameId, count(e) as scoreCount, sum(e.score) as scoreSum, min(e.score) as minScore, "
+            + "max(e.score) as maxScore from ScoreEvent e "
+            + "where e.createdAt >= :from and e.createdAt < :to and e.score is not null group by e.gameId")
+    List<ScoreAggregate> aggregateBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("select e.gameId as gameId, e.createdAt as createdAt, e.score as score from ScoreEvent e "
+            + "where e.gameId = :gameId and e.createdAt >= :from and e.createdAt < :to and e.score is not null")
+    List<ScorePoint> findScorePointsByGameId(@Param("gameId") Long gameId, @Param("from") Instant from,
+            @Param("to") Instant to);
+
+    // Replay order for rebuilding aggregates from a snapshot watermark
+    @Query("select e from ScoreEvent e where e.id > :id order by e.id")
+    List<ScoreEvent> findAfter(@Param("id") long id, Pageable pageable);
+
+    @Query("select max(e.id) from ScoreEvent e")
+    Long findMaxId();
+
+    @Query("select min(e.createdAt) from ScoreEvent e")
+    Instant findEarliestCreatedAt();
+
+    @Transactional
+    @Modifying
+    @Query("delete from ScoreEvent e where e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -1,9 +1,50 @@
 package com.example.demo.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.example.demo.entity.Score;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ScoreRepository extends JpaRepository<Score, Long> {
+
+    Optional<Score> findByUserIdAndGameId(Long userId, Long gameId);
+
+    // Compare-and-set on the version, returns 0 when the row changed since it was read
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Score s set s.score = :score, s.userId = :userId, s.gameId = :gameId, s.version = s.version + 1 "
+            + "where s.id = :id and s.version = :version")
+    int updateIfVersion(@Param("id") Long id, @Param("version") Long version, @Param("score") Long score,
+            @Param("userId") Long userId, @Param("gameId") Long gameId);
+
+    interface GameScoreTotals {
+        Long getGameId();
+
+        long getCount();
+
+        Long getSum();
+    }
+
+    @Query("select s.gameId as gameId, count(s) as count, sum(s.score) as sum from Score s "
+            + "where s.gameId is not null and s.score is not null group by s.gameId")
+    List<GameScoreTotals> sumScoresByGame();
+
+    interface GameScoreCount {
+        Long getGameId();
+
+        Long getScore();
+
+        long getCount();
+    }
+
+    @Query("select s.gameId as gameId, s.score as score, count(s) as count from Score s "
+            + "where s.gameId is not null and s.score is not null group by s.gameId, s.score")
+    List<GameScoreCount> countScoresByGameAndValue();
 }
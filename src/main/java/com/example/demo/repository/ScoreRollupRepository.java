@@ -0,0 +1,53 @@
+package com.example.demo.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.ScoreRollup;
+import com.example.demo.entity.ScoreRollup.Resolution;
+
+@Repository
+public interface ScoreRollupRepository extends JpaRepository<ScoreRollup, Long> {
+
+    // Count, sum, min and max of the scores of one game over a span
+    interface ScoreAggregate {
+        Long getGameId();
+
+        long getScoreCount();
+
+        long getScoreSum();
+
+        long getMinScore();
+
+        long getMaxScore();
+    }
+
+    @Query("select r.gameId as gameId, sum(r.scoreCount) as scoreCount, sum(r.scoreSum) as scoreSum, "
+            + "min(r.minScore) as minScore, max(r.maxScore) as maxScore from ScoreRollup r "
+            + "where r.resolution = :resolution and r.bucketStart >= :from and r.bucketStart < :to group by r.gameId")
+    List<ScoreAggregate> aggregateBetween(@Param("resolution") Resolution resolution, @Param("from") Instant from,
+            @Param("to") Instant to);
+
+    @Query("select r from ScoreRollup r where r.gameId = :gameId and r.resolution = :resolution "
+            + "and r.bucketStart >= :from and r.bucketStart < :to")
+    List<ScoreRollup> findBetweenByGameId(@Param("gameId") Long gameId, @Param("resolution") Resolution resolution,
+            @Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("select min(r.bucketStart) from ScoreRollup r where r.resolution = :resolution")
+    Instant findEarliestBucketStart(@Param("resolution") Resolution resolution);
+
+    @Query("select max(r.bucketStart) from ScoreRollup r where r.resolution = :resolution")
+    Instant findLatestBucketStart(@Param("resolution") Resolution resolution);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ScoreRollup r where r.resolution = :resolution and r.bucketStart < :cutoff")
+    int deleteOlderThan(@Param("resolution") Resolution resolution, @Param("cutoff") Instant cutoff);
+}
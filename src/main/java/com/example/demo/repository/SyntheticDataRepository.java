@@ -0,0 +1,113 @@
+package com.example.demo.repository;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.entity.Score;
+
+/**
+ * JDBC batch inserts of generated users, libraries, scores and commentaries,
+ * without entities or lifecycle callbacks. Users and commentaries are written
+ * with their ids so that rows of other tables can reference them before they
+ * exist; MySQL and MariaDB move their auto-increment past the written ids by
+ * themselves, H2 needs its identity restarted afterwards.
+ */
+@Repository
+public class SyntheticDataRepository {
+
+    public record UserRow(long id, String username, String slug, String email, String password, String biography) {
+    }
+
+    public record CommentaryRow(long id, String content, long userId, int gameId, Long parentId, long rootId,
+            String path, int depth) {
+    }
+
+    private static final Map<String, String> RESTART_IDENTITY = Map.of(
+            "H2", "alter table %s alter column id restart with %d");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    public long countUsersByEmailDomain(String domain) {
+        return jdbcTemplate.queryForObject("select count(*) from users where email like ?", Long.class, "%@" + domain);
+    }
+
+    public List<Long> findGameIds() {
+        return jdbcTemplate.queryForList("select id from games", Long.class);
+    }
+
+    public void insertGames(List<Long> ids) {
+        jdbcTemplate.batchUpdate("insert into games (id) values (?)", ids, ids.size(),
+                (statement, id) -> statement.setLong(1, id));
+    }
+
+    public void insertUsers(List<UserRow> users) {
+        jdbcTemplate.batchUpdate("insert into users (id, username, slug, email, password, biography, role, is_online) "
+                + "values (?, ?, ?, ?, ?, ?, false, false)", users, users.size(), (statement, user) -> {
+                    statement.setLong(1, user.id());
+                    statement.setString(2, user.username());
+                    statement.setString(3, user.slug());
+                    statement.setString(4, user.email());
+                    statement.setString(5, user.password());
+                    statement.setString(6, user.biography());
+                });
+    }
+
+    // Pairs of user id and game id
+    public void insertLibraries(List<long[]> entries) {
+        jdbcTemplate.batchUpdate("insert into user_game (user_id, game_id) values (?, ?)", entries, entries.size(),
+                (statement, entry) -> {
+                    statement.setLong(1, entry[0]);
+                    statement.setLong(2, entry[1]);
+                });
+    }
+
+    public void insertScores(List<Score> scores) {
+        jdbcTemplate.batchUpdate("insert into score (score, user_id, game_id, version) values (?, ?, ?, 0)", scores,
+                scores.size(), (statement, score) -> {
+                    statement.setLong(1, score.getScore());
+                    statement.setLong(2, score.getUserId());
+                    statement.setLong(3, score.getGameId());
+                });
+    }
+
+    // Parents must come before their replies in the list
+    public void insertCommentaries(List<CommentaryRow> commentaries) {
+        jdbcTemplate.batchUpdate("insert into commentary (id, content, user_id, game_id, parent_id, root_id, path, depth) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?)", commentaries, commentaries.size(), (statement, commentary) -> {
+                    statement.setLong(1, commentary.id());
+                    statement.setString(2, commentary.content());
+                    statement.setLong(3, commentary.userId());
+                    statement.setInt(4, commentary.gameId());
+                    if (commentary.parentId() == null) {
+                        statement.setNull(5, Types.BIGINT);
+                    } else {
+                        statement.setLong(5, commentary.parentId());
+                    }
+                    statement.setLong(6, commentary.rootId());
+                    statement.setString(7, commentary.path());
+                    statement.setInt(8, commentary.depth());
+                });
+    }
+
+    // Makes the next generated id of the table follow the ids written explicitly
+    public void restartIdentity(String table) {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        String sql = RESTART_IDENTITY.get(product);
+        if (sql != null) {
+            jdbcTemplate.execute(sql.formatted(table, nextId(table)));
+        }
+    }
+}
@@ -5,12 +5,14 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import com.example.demo.entity.Commentary;
 import com.example.demo.entity.User;
 
 @Component
+@Order(1)
 public class UserGeneratorRepository implements CommandLineRunner{
     
     @Autowired
@@ -35,8 +37,9 @@ public class UserGeneratorRepository implements CommandLineRunner{
 
             List<Commentary> commentaries = new ArrayList<>();
 
-            commentaries.add(new Commentary("Ce jeu est génial mais difficile", users.get(1), 1));
-            commentaries.add(new Commentary("Je suis d'accord avec toi", users.get(2), 1));
+            Commentary firstCommentary = new Commentary("Ce jeu est génial mais difficile", users.get(1), 1);
+            commentaries.add(firstCommentary);
+            commentaries.add(new Commentary("Je suis d'accord avec toi", users.get(2), firstCommentary));
             commentaries.add(new Commentary("J'ai fini ce jeu en deux jours, j'ai pas pu m'arrêter", users.get(3), 10));
 
             this.commentaryRepository.saveAll(commentaries);
@@ -1,9 +1,15 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.entity.User;
+import com.example.demo.entity.dto.AuthorCardDTO;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,4 +20,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByUsername(String username);
 
+    @Query("select new com.example.demo.entity.dto.AuthorCardDTO(u.id, u.username, u.slug, u.profilePicture) from User u where u.id in :ids")
+    List<AuthorCardDTO> findAuthorCardsByIdIn(@Param("ids") Collection<Long> ids);
+
 }
\ No newline at end of file
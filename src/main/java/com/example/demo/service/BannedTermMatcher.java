@@ -0,0 +1,181 @@
+package com.example.demo.service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a list of banned terms. Terms and scanned text are
+ * normalized the same way (accents stripped, lower-cased), so "Épée" matches
+ * "epee". A post is scanned in a single pass whatever the number of terms, and
+ * only whole-word occurrences are reported.
+ *
+ * Instances are immutable once built and safe to share between threads.
+ */
+public final class BannedTermMatcher {
+
+    private static final BannedTermMatcher EMPTY = new BannedTermMatcher(List.of());
+
+    // Transitions of node n are keys[n] / targets[n], sorted by key for binary search
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] failure;
+    // Index of the term ending at the node, or -1
+    private final int[] terminal;
+    // Nearest node on the failure chain that ends a term, or -1
+    private final int[] dictionaryLink;
+    private final String[] terms;
+
+    private BannedTermMatcher(Collection<String> rawTerms) {
+        List<String> normalizedTerms = new ArrayList<>();
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminals = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminals.add(-1);
+
+        for (String rawTerm : rawTerms) {
+            String term = new String(normalize(rawTerm)).trim();
+            if (term.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                Integer next = trie.get(node).get(term.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(node).put(term.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    terminals.add(-1);
+                }
+                node = next;
+            }
+            if (terminals.get(node) < 0) {
+                terminals.set(node, normalizedTerms.size());
+                normalizedTerms.add(term);
+            }
+        }
+
+        int size = trie.size();
+        this.keys = new char[size][];
+        this.targets = new int[size][];
+        this.failure = new int[size];
+        this.terminal = new int[size];
+        this.dictionaryLink = new int[size];
+        this.terms = normalizedTerms.toArray(new String[0]);
+
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            keys[node] = new char[edges.size()];
+            targets[node] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                keys[node][i] = edge.getKey();
+                targets[node][i] = edge.getValue();
+                i++;
+            }
+            terminal[node] = terminals.get(node);
+        }
+
+        // Breadth-first construction of failure and dictionary links
+        Arrays.fill(dictionaryLink, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < keys[node].length; i++) {
+                char c = keys[node][i];
+                int child = targets[node][i];
+                int fallback = failure[node];
+                while (fallback > 0 && next(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int candidate = next(fallback, c);
+                failure[child] = candidate >= 0 && candidate != child ? candidate : 0;
+                int link = failure[child];
+                dictionaryLink[child] = terminal[link] >= 0 ? link : dictionaryLink[link];
+                queue.add(child);
+            }
+        }
+    }
+
+    public static BannedTermMatcher of(Collection<String> terms) {
+        return terms.isEmpty() ? EMPTY : new BannedTermMatcher(terms);
+    }
+
+    public static BannedTermMatcher empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * Returns the first banned term found as a whole word in {@code text}, in its
+     * normalized form.
+     */
+    public Optional<String> findFirst(String text) {
+        if (text == null || terms.length == 0) {
+            return Optional.empty();
+        }
+        char[] chars = normalize(text);
+        int node = 0;
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            int target = next(node, c);
+            while (target < 0 && node > 0) {
+                node = failure[node];
+                target = next(node, c);
+            }
+            node = target < 0 ? 0 : target;
+
+            int output = terminal[node] >= 0 ? node : dictionaryLink[node];
+            while (output >= 0) {
+                String term = terms[terminal[output]];
+                if (isWholeWord(chars, i - term.length() + 1, i + 1)) {
+                    return Optional.of(term);
+                }
+                output = dictionaryLink[output];
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean matches(String text) {
+        return findFirst(text).isPresent();
+    }
+
+    private int next(int node, char c) {
+        int index = Arrays.binarySearch(keys[node], c);
+        return index < 0 ? -1 : targets[node][index];
+    }
+
+    private static boolean isWholeWord(char[] chars, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(chars[start - 1]))
+                && (end == chars.length || !Character.isLetterOrDigit(chars[end]));
+    }
+
+    // Decomposes accented characters, drops the combining marks and lower-cases the rest
+    static char[] normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        char[] result = new char[decomposed.length()];
+        int length = 0;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            result[length++] = Character.toLowerCase(c);
+        }
+        return length == result.length ? result : Arrays.copyOf(result, length);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of the last commentary events published for one game.
+ * Sequence numbers are assigned on append and are used as SSE event ids, so a
+ * reconnecting client can resume from its Last-Event-ID as long as the event
+ * is still in the buffer.
+ */
+public class CommentaryEventBuffer {
+
+    public record Event(long id, Object payload) {
+    }
+
+    private final Event[] events;
+    private final long firstId;
+    private long nextId;
+
+    public CommentaryEventBuffer(int capacity) {
+        this(capacity, 1);
+    }
+
+    // A buffer replacing another one starts after its ids, so that they are never reused
+    public CommentaryEventBuffer(int capacity, long firstId) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        this.events = new Event[capacity];
+        this.firstId = firstId;
+        this.nextId = firstId;
+    }
+
+    public synchronized Event append(Object payload) {
+        Event event = new Event(nextId, payload);
+        events[(int) (nextId % events.length)] = event;
+        nextId++;
+        return event;
+    }
+
+    /**
+     * Returns the buffered events with an id strictly greater than {@code lastEventId},
+     * oldest first. Events that were already overwritten are silently skipped.
+     */
+    public synchronized List<Event> since(long lastEventId) {
+        long oldest = Math.max(firstId, nextId - events.length);
+        long from = Math.max(oldest, lastEventId + 1);
+        List<Event> result = new ArrayList<>((int) Math.max(0, nextId - from));
+        for (long id = from; id < nextId; id++) {
+            result.add(events[(int) (id % events.length)]);
+        }
+        return result;
+    }
+
+    public synchronized long lastId() {
+        return nextId - 1;
+    }
+}
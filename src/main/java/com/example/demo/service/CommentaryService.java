@@ -1,36 +1,175 @@
 package com.example.demo.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.config.TwoTierCache;
 import com.example.demo.entity.Commentary;
+import com.example.demo.entity.User;
+import com.example.demo.entity.dto.AuthorCardDTO;
+import com.example.demo.entity.dto.CommentaryDTO;
 import com.example.demo.repository.CommentaryRepository;
+import com.example.demo.repository.CommentaryRepository.CommentaryRow;
+import com.example.demo.repository.CommentaryRepository.ReplyCount;
+import com.example.demo.repository.UserRepository;
 
 
 
 @Service
 public class CommentaryService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private CommentaryRepository commentaryRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentaryStreamService commentaryStreamService;
+
+    @Autowired
+    private ModerationService moderationService;
+
+    @Autowired
+    private TwoTierCache<Long, CommentaryRow> commentaryRowsCache = TwoTierCache.disabled("commentary-rows");
+
+    @Autowired
+    private TwoTierCache<Long, AuthorCardDTO> authorCardsCache = TwoTierCache.disabled("author-cards");
+
     public List<Commentary> getAll() {
         List<Commentary> commentaries = this.commentaryRepository.findAll();
         return commentaries;
     }
 
+    public List<CommentaryDTO> getPage(Integer gameId, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        List<CommentaryRow> rows = gameId == null
+                ? this.commentaryRepository.findRows(pageRequest)
+                : this.commentaryRepository.findRowsByGameId(gameId, pageRequest);
+        return hydrate(rows);
+    }
+
     public Commentary getOneById(Long id) {
         Commentary commentary = this.commentaryRepository.findById(id).get();
         return commentary;
     }
 
+    // Commentary and author are cached apart, a change of the author's profile does not touch the commentary
+    public CommentaryDTO getCardById(Long id) {
+        CommentaryRow row = Optional.ofNullable(
+                this.commentaryRowsCache.get(id, key -> this.commentaryRepository.findRowById(key).orElse(null))).get();
+        AuthorCardDTO author = row.getUserId() == null ? null
+                : this.authorCardsCache.get(row.getUserId(),
+                        key -> this.userRepository.findAuthorCardsByIdIn(List.of(key)).stream().findFirst().orElse(null));
+        return toDTO(row, author);
+    }
+
+    public List<CommentaryDTO> getTopLevelPage(int gameId, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        List<CommentaryDTO> commentaries = hydrate(this.commentaryRepository.findTopLevelRowsByGameId(gameId, pageRequest));
+        if (commentaries.isEmpty()) {
+            return commentaries;
+        }
+        Map<Long, Long> replyCounts = this.commentaryRepository
+                .countRepliesByRootIds(commentaries.stream().map(CommentaryDTO::getId).toList()).stream()
+                .collect(Collectors.toMap(ReplyCount::getRootId, ReplyCount::getReplyCount));
+        commentaries.forEach(commentary -> commentary.setReplyCount(replyCounts.getOrDefault(commentary.getId(), 0L)));
+        return commentaries;
+    }
+
+    // Returns the commentary and all its replies in depth-first order
+    public List<CommentaryDTO> getThread(Long id) {
+        CommentaryRow row = this.commentaryRepository.findRowById(id).get();
+        List<CommentaryRow> rows = row.getParentId() == null
+                ? this.commentaryRepository.findThreadRows(row.getRootId())
+                : this.commentaryRepository.findSubtreeRows(row.getPath() + "%");
+        return hydrate(rows);
+    }
+
+    public Commentary reply(Long parentId, Commentary reply) {
+        Commentary parent = this.commentaryRepository.findById(parentId).get();
+        if (parent.getDepth() + 1 >= Commentary.MAX_DEPTH) {
+            throw new IllegalArgumentException("Le fil de discussion est trop profond");
+        }
+        reply.setParent(parent);
+        reply.setGameId(parent.getGameId());
+        return createCommentary(reply);
+    }
+
     public Commentary createCommentary(Commentary commentary) {
+        if (this.moderationService.findBannedTerm(commentary.getContent()).isPresent()) {
+            throw new IllegalArgumentException("Le commentaire contient un terme interdit");
+        }
         Commentary createdCommentary = this.commentaryRepository.save(commentary);
+        this.commentaryStreamService.publish(convertToDTO(createdCommentary));
         return createdCommentary;
     }
 
+    // Replies are deleted deepest first so the parent foreign key is never violated
+    @Transactional
     public void deleteCommentary(Long id) {
+        this.commentaryRepository.findRowById(id).ifPresent(row -> {
+            String subtree = row.getPath() + "%";
+            if (this.commentaryRowsCache.isEnabled()) {
+                this.commentaryRepository.findSubtreeRows(subtree)
+                        .forEach(reply -> this.commentaryRowsCache.invalidate(reply.getId()));
+            }
+            Integer maxDepth = this.commentaryRepository.findMaxDepthByPath(subtree);
+            for (int depth = maxDepth == null ? row.getDepth() : maxDepth; depth > row.getDepth(); depth--) {
+                this.commentaryRepository.deleteByPathAndDepth(subtree, depth);
+            }
+        });
         this.commentaryRepository.deleteById(id);
+        this.commentaryRowsCache.invalidate(id);
+    }
+
+    // Resolves every author of the page with a single IN query
+    private List<CommentaryDTO> hydrate(List<CommentaryRow> rows) {
+        List<Long> authorIds = rows.stream()
+                .map(CommentaryRow::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, AuthorCardDTO> authors = authorIds.isEmpty()
+                ? Map.of()
+                : this.userRepository.findAuthorCardsByIdIn(authorIds).stream()
+                        .collect(Collectors.toMap(AuthorCardDTO::getId, Function.identity()));
+        return rows.stream()
+                .map(row -> toDTO(row, row.getUserId() == null ? null : authors.get(row.getUserId())))
+                .collect(Collectors.toList());
+    }
+
+    private CommentaryDTO toDTO(CommentaryRow row, AuthorCardDTO author) {
+        CommentaryDTO commentary = new CommentaryDTO(row.getId(), row.getContent(), row.getGameId(), author);
+        commentary.setParentId(row.getParentId());
+        commentary.setDepth(row.getDepth());
+        return commentary;
+    }
+
+    // A posted author only carries its id, its card is always read by that id
+    private CommentaryDTO convertToDTO(Commentary commentary) {
+        User user = commentary.getUser();
+        AuthorCardDTO author = null;
+        if (user != null && user.getUsername() == null && user.getId() != null) {
+            author = this.authorCardsCache.get(user.getId(),
+                    key -> this.userRepository.findAuthorCardsByIdIn(List.of(key)).stream().findFirst().orElse(null));
+        } else if (user != null) {
+            author = new AuthorCardDTO(user.getId(), user.getUsername(), user.getSlug(), user.getProfilePicture());
+        }
+        CommentaryDTO commentaryDTO = new CommentaryDTO(commentary.getId(), commentary.getContent(), commentary.getGameId(), author);
+        commentaryDTO.setParentId(commentary.getParentId());
+        commentaryDTO.setDepth(commentary.getDepth());
+        return commentaryDTO;
     }
 }
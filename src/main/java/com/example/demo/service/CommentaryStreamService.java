@@ -0,0 +1,229 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.entity.dto.CommentaryDTO;
+
+/**
+ * Live commentary feed per game. Each game has a bounded ring buffer used for
+ * Last-Event-ID resume, and each subscriber gets its own bounded queue drained
+ * by a virtual thread. A subscriber whose queue is full is disconnected; the
+ * client is expected to reconnect and resume from the buffer.
+ *
+ * Feeds are created by subscriptions only, at most app.commentary-stream.max-feeds
+ * of them, and dropped once they have had no subscriber for the idle timeout.
+ * Commentaries of a game without a feed are not buffered: nobody can resume
+ * from them. Event ids keep increasing across the feeds of a game, so that a
+ * Last-Event-ID from a dropped feed replays the whole buffer of the new one.
+ */
+@Service
+public class CommentaryStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentaryStreamService.class);
+
+    private static final String EVENT_NAME = "commentary";
+
+    @Value("${app.commentary-stream.buffer-size:256}")
+    private int bufferSize = 256;
+
+    @Value("${app.commentary-stream.subscriber-queue-size:64}")
+    private int subscriberQueueSize = 64;
+
+    @Value("${app.commentary-stream.timeout:PT30M}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @Value("${app.commentary-stream.max-feeds:10000}")
+    private int maxFeeds = 10000;
+
+    @Value("${app.commentary-stream.idle-timeout:PT5M}")
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    private final ThreadFactory senderThreads = Thread.ofVirtual().name("commentary-sse-", 0).factory();
+
+    private final Map<Integer, Feed> feeds = new ConcurrentHashMap<>();
+
+    // Highest event id given by any feed, where a new feed starts
+    private final AtomicLong lastEventIds = new AtomicLong();
+
+    public SseEmitter subscribe(int gameId, Long lastEventId) {
+        SseEmitter emitter = createEmitter();
+        Feed feed;
+        Subscriber subscriber;
+        List<CommentaryEventBuffer.Event> replay;
+        // A feed dropped between its lookup and the registration is created again
+        do {
+            feed = feedFor(gameId);
+            subscriber = new Subscriber(feed, emitter, subscriberQueueSize);
+            replay = feed.register(subscriber, lastEventId);
+            if (replay == null) {
+                feeds.remove(gameId, feed);
+            }
+        } while (replay == null);
+
+        Subscriber registered = subscriber;
+        emitter.onCompletion(registered::close);
+        emitter.onTimeout(registered::close);
+        emitter.onError(error -> registered.close());
+
+        registered.start(replay);
+        return emitter;
+    }
+
+    public void publish(CommentaryDTO commentary) {
+        Feed feed = feeds.get(commentary.getGameId());
+        if (feed != null) {
+            lastEventIds.accumulateAndGet(feed.publish(commentary), Math::max);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.commentary-stream.eviction-interval:PT1M}")
+    public void evictIdleFeeds() {
+        long idleSince = System.nanoTime() - idleTimeout.toNanos();
+        feeds.values().removeIf(feed -> feed.closeIfIdle(idleSince));
+    }
+
+    public int subscriberCount(int gameId) {
+        Feed feed = feeds.get(gameId);
+        return feed == null ? 0 : feed.subscribers.size();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    int feedCount() {
+        return feeds.size();
+    }
+
+    private Feed feedFor(int gameId) {
+        Feed feed = feeds.get(gameId);
+        if (feed != null) {
+            return feed;
+        }
+        if (feeds.size() >= maxFeeds) {
+            throw new IllegalStateException("Trop de flux de commentaires ouverts, réessayez plus tard");
+        }
+        return feeds.computeIfAbsent(gameId,
+                id -> new Feed(id, new CommentaryEventBuffer(bufferSize, lastEventIds.get() + 1)));
+    }
+
+    private static final class Feed {
+
+        private final int gameId;
+        private final CommentaryEventBuffer buffer;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+        // Guarded by this
+        private long lastActive = System.nanoTime();
+        private boolean closed;
+
+        private Feed(int gameId, CommentaryEventBuffer buffer) {
+            this.gameId = gameId;
+            this.buffer = buffer;
+        }
+
+        // Registration and publication share the feed lock so that an event is
+        // either part of the replay or delivered live, never both. Returns null
+        // once the feed is closed.
+        private synchronized List<CommentaryEventBuffer.Event> register(Subscriber subscriber, Long lastEventId) {
+            if (closed) {
+                return null;
+            }
+            subscribers.add(subscriber);
+            lastActive = System.nanoTime();
+            return lastEventId == null ? List.of() : buffer.since(lastEventId);
+        }
+
+        private synchronized long publish(Object payload) {
+            CommentaryEventBuffer.Event event = buffer.append(payload);
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.queue.offer(event)) {
+                    log.debug("Disconnecting slow commentary subscriber on game {}", gameId);
+                    subscriber.disconnect();
+                }
+            }
+            return event.id();
+        }
+
+        private synchronized boolean closeIfIdle(long idleSince) {
+            if (!subscribers.isEmpty()) {
+                lastActive = System.nanoTime();
+                return false;
+            }
+            closed = lastActive - idleSince < 0;
+            return closed;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Feed feed;
+        private final SseEmitter emitter;
+        private final BlockingQueue<CommentaryEventBuffer.Event> queue;
+        private volatile Thread sender;
+
+        private Subscriber(Feed feed, SseEmitter emitter, int queueSize) {
+            this.feed = feed;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        private void start(List<CommentaryEventBuffer.Event> replay) {
+            sender = senderThreads.newThread(() -> run(replay));
+            sender.start();
+        }
+
+        private void run(List<CommentaryEventBuffer.Event> replay) {
+            try {
+                for (CommentaryEventBuffer.Event event : replay) {
+                    send(event);
+                }
+                while (!Thread.currentThread().isInterrupted()) {
+                    send(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            } finally {
+                feed.subscribers.remove(this);
+            }
+        }
+
+        private void send(CommentaryEventBuffer.Event event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(EVENT_NAME)
+                    .data(event.payload()));
+        }
+
+        private void disconnect() {
+            close();
+            emitter.complete();
+        }
+
+        private void close() {
+            feed.subscribers.remove(this);
+            Thread thread = sender;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+/**
+ * Fenwick (binary indexed) tree of counts over the values {@code 0 .. size - 1}.
+ * Point updates, prefix counts and "k-th smallest value" lookups are all
+ * O(log size).
+ *
+ * Not thread-safe: callers guard it with their own lock.
+ */
+public final class FenwickTree {
+
+    private final int[] tree;
+    private final int highestPowerOfTwo;
+    private long total;
+
+    public FenwickTree(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Fenwick tree size must be positive");
+        }
+        this.tree = new int[size + 1];
+        this.highestPowerOfTwo = Integer.highestOneBit(size);
+    }
+
+    public int size() {
+        return tree.length - 1;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public void add(int value, int delta) {
+        checkValue(value);
+        total += delta;
+        for (int i = value + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Number of recorded values lower than or equal to {@code value}; 0 for a
+     * negative value.
+     */
+    public long countAtMost(int value) {
+        if (value < 0) {
+            return 0;
+        }
+        long count = 0;
+        for (int i = Math.min(value, size() - 1) + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    public long count(int value) {
+        return countAtMost(value) - countAtMost(value - 1);
+    }
+
+    /**
+     * The {@code k}-th smallest recorded value, 1-based, or -1 when fewer than
+     * {@code k} values are recorded.
+     */
+    public int kth(long k) {
+        if (k <= 0 || k > total) {
+            return -1;
+        }
+        int position = 0;
+        for (int step = highestPowerOfTwo; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < k) {
+                position = next;
+                k -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    private void checkValue(int value) {
+        if (value < 0 || value >= size()) {
+            throw new IndexOutOfBoundsException(value);
+        }
+    }
+}
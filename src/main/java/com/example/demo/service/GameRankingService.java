@@ -0,0 +1,184 @@
+package com.example.demo.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.dto.GameRankingDTO;
+import com.example.demo.repository.ScoreRepository;
+import com.example.demo.repository.ScoreRepository.GameScoreTotals;
+
+/**
+ * "Top rated games" ranking kept in memory. Each game keeps the sum and count of
+ * its scores, games are ordered by their Bayesian average
+ * {@code (priorWeight * priorMean + sum) / (priorWeight + count)}, which keeps
+ * a game with two perfect scores from outranking one with hundreds of good ones.
+ *
+ * The ranking is rebuilt from the score table at startup and then updated
+ * incrementally on each score write, in O(log n). The prior mean is either
+ * configured or taken from the global average at rebuild time; it is not moved
+ * by later writes, otherwise every write would reorder every game.
+ */
+@Service
+public class GameRankingService implements ScoreListener {
+
+    private static final Logger log = LoggerFactory.getLogger(GameRankingService.class);
+
+    private static final Comparator<RankedGame> BEST_FIRST = Comparator
+            .comparingDouble(RankedGame::rating).reversed()
+            .thenComparingLong(RankedGame::gameId);
+
+    public record RankedGame(long gameId, double rating) {
+    }
+
+    private static final class GameTotals {
+        private long sum;
+        private long count;
+        private RankedGame entry;
+    }
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Value("${app.ranking.prior-weight:10}")
+    private double priorWeight = 10;
+
+    // Negative means "use the global average at rebuild time"
+    @Value("${app.ranking.prior-mean:-1}")
+    private double configuredPriorMean = -1;
+
+    private double priorMean;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, GameTotals> totals = new HashMap<>();
+    private final OrderStatisticTree<RankedGame> ranking = new OrderStatisticTree<>(BEST_FIRST);
+
+    public void rebuild() {
+        rebuild(this.scoreRepository.sumScoresByGame());
+    }
+
+    public void rebuild(List<GameScoreTotals> rows) {
+        lock.writeLock().lock();
+        try {
+            totals.clear();
+            ranking.clear();
+            long globalSum = 0;
+            long globalCount = 0;
+            for (GameScoreTotals row : rows) {
+                GameTotals game = new GameTotals();
+                game.sum = row.getSum() == null ? 0 : row.getSum();
+                game.count = row.getCount();
+                totals.put(row.getGameId(), game);
+                globalSum += game.sum;
+                globalCount += game.count;
+            }
+            priorMean = configuredPriorMean >= 0 || globalCount == 0
+                    ? Math.max(configuredPriorMean, 0)
+                    : (double) globalSum / globalCount;
+            totals.forEach((gameId, game) -> reindex(gameId, game));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Game ranking rebuilt with {} games", rows.size());
+    }
+
+    @Override
+    public void onScoreSaved(Score previous, Score current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            apply(current, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onScoreDeleted(Score previous) {
+        lock.writeLock().lock();
+        try {
+            apply(previous, -1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<GameRankingDTO> getTopRated(int page, int size) {
+        lock.readLock().lock();
+        try {
+            int offset = Math.max(page, 0) * Math.max(size, 0);
+            List<RankedGame> entries = ranking.range(offset, size);
+            return IntStream.range(0, entries.size())
+                    .mapToObj(i -> toDTO(offset + i + 1, entries.get(i)))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<GameRankingDTO> getRank(Long gameId) {
+        lock.readLock().lock();
+        try {
+            GameTotals game = totals.get(gameId);
+            if (game == null || game.entry == null) {
+                return Optional.empty();
+            }
+            return Optional.of(toDTO(ranking.rank(game.entry) + 1, game.entry));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int rankedGames() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Score score, int sign) {
+        if (score.getGameId() == null || score.getScore() == null) {
+            return;
+        }
+        GameTotals game = totals.computeIfAbsent(score.getGameId(), id -> new GameTotals());
+        game.sum += sign * score.getScore();
+        game.count += sign;
+        if (game.count <= 0) {
+            if (game.entry != null) {
+                ranking.remove(game.entry);
+            }
+            totals.remove(score.getGameId());
+            return;
+        }
+        reindex(score.getGameId(), game);
+    }
+
+    private void reindex(Long gameId, GameTotals game) {
+        if (game.entry != null) {
+            ranking.remove(game.entry);
+        }
+        game.entry = new RankedGame(gameId, (priorWeight * priorMean + game.sum) / (priorWeight + game.count));
+        ranking.add(game.entry);
+    }
+
+    private GameRankingDTO toDTO(int rank, RankedGame entry) {
+        GameTotals game = totals.get(entry.gameId());
+        return new GameRankingDTO(rank, entry.gameId(), entry.rating(), (double) game.sum / game.count, game.count);
+    }
+}
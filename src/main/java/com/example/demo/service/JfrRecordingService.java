@@ -0,0 +1,223 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.entity.dto.JfrRecordingDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Java Flight Recorder sessions started from the admin API, so the JVM of the
+ * container can be profiled without a shell.
+ *
+ * On-demand recordings use one of the JDK settings ("default", about 1%
+ * overhead, or "profile", more detail for a few percent) and stop by
+ * themselves after their duration, capped by app.jfr.max-duration; their file
+ * is written to app.jfr.directory when they stop. Only a few run at a time.
+ * Stopped recordings and their files are removed app.jfr.retention after
+ * they stop, or sooner when more than app.jfr.max-kept of them are kept.
+ * The continuous recording runs from startup with the default settings and
+ * keeps the last app.jfr.continuous.max-age of events on disk, up to
+ * app.jfr.continuous.max-size; a dump copies it to a file at any time.
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingService.class);
+
+    private static final List<String> PROFILES = List.of("default", "profile");
+
+    private static final String CONTINUOUS_NAME = "continuous";
+
+    @Value("${app.jfr.directory:recordings}")
+    private Path directory = Path.of("recordings");
+
+    @Value("${app.jfr.max-duration:PT5M}")
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    @Value("${app.jfr.max-running:2}")
+    private int maxRunning = 2;
+
+    @Value("${app.jfr.retention:PT1H}")
+    private Duration retention = Duration.ofHours(1);
+
+    @Value("${app.jfr.max-kept:10}")
+    private int maxKept = 10;
+
+    @Value("${app.jfr.continuous.enabled:false}")
+    private boolean continuousEnabled;
+
+    @Value("${app.jfr.continuous.max-age:PT15M}")
+    private Duration continuousMaxAge = Duration.ofMinutes(15);
+
+    @Value("${app.jfr.continuous.max-size:100MB}")
+    private DataSize continuousMaxSize = DataSize.ofMegabytes(100);
+
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    private Recording continuous;
+
+    @PostConstruct
+    public void startContinuous() throws IOException, ParseException {
+        if (!continuousEnabled) {
+            return;
+        }
+        continuous = new Recording(Configuration.getConfiguration("default"));
+        continuous.setName(CONTINUOUS_NAME);
+        continuous.setToDisk(true);
+        continuous.setMaxAge(continuousMaxAge);
+        continuous.setMaxSize(continuousMaxSize.toBytes());
+        continuous.start();
+        log.info("Continuous flight recording started, keeping the last {} up to {}", continuousMaxAge,
+                continuousMaxSize);
+    }
+
+    @PreDestroy
+    public void close() {
+        recordings.values().forEach(Recording::close);
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    public synchronized JfrRecordingDTO start(String profile, Duration duration) throws IOException, ParseException {
+        if (!PROFILES.contains(profile)) {
+            throw new IllegalArgumentException("Profil JFR inconnu : " + profile + ", attendu : " + PROFILES);
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("La durée doit être comprise entre 0 et " + maxDuration);
+        }
+        long running = recordings.values().stream().filter(recording -> recording.getState() == RecordingState.RUNNING).count();
+        if (running >= maxRunning) {
+            throw new IllegalStateException("Déjà " + running + " enregistrements en cours");
+        }
+        Files.createDirectories(directory);
+        Recording recording = new Recording(Configuration.getConfiguration(profile));
+        recording.setName(profile + "-" + System.currentTimeMillis());
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setDestination(directory.resolve(recording.getName() + ".jfr"));
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        log.info("Flight recording {} started with the {} settings for {}", recording.getId(), profile, duration);
+        purgeFinished();
+        return toDTO(recording);
+    }
+
+    // On-demand recordings, then the continuous one
+    public List<JfrRecordingDTO> getRecordings() {
+        List<JfrRecordingDTO> result = new ArrayList<>();
+        recordings.values().forEach(recording -> result.add(toDTO(recording)));
+        if (continuous != null) {
+            result.add(toDTO(continuous));
+        }
+        return result;
+    }
+
+    public Optional<JfrRecordingDTO> getRecording(long id) {
+        return Optional.ofNullable(recordings.get(id)).map(this::toDTO);
+    }
+
+    /**
+     * File of a finished on-demand recording, empty when the recording is
+     * unknown. Throws IllegalStateException while it is still running.
+     */
+    public Optional<Path> getFile(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return Optional.empty();
+        }
+        if (recording.getState() != RecordingState.STOPPED && recording.getState() != RecordingState.CLOSED) {
+            throw new IllegalStateException("L'enregistrement " + id + " est encore en cours");
+        }
+        return Optional.of(recording.getDestination()).filter(Files::exists);
+    }
+
+    public boolean delete(long id) throws IOException {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        if (recording.getDestination() != null) {
+            Files.deleteIfExists(recording.getDestination());
+        }
+        return true;
+    }
+
+    // Oldest stopped recordings first, past the retention or beyond the number kept
+    @Scheduled(fixedDelayString = "${app.jfr.purge-interval:PT5M}")
+    public synchronized void purgeFinished() {
+        List<Recording> finished = recordings.values().stream()
+                .filter(recording -> recording.getStopTime() != null)
+                .filter(recording -> recording.getState() == RecordingState.STOPPED
+                        || recording.getState() == RecordingState.CLOSED)
+                .sorted(Comparator.comparing(Recording::getStopTime))
+                .toList();
+        Instant expired = Instant.now().minus(retention);
+        for (int index = 0; index < finished.size(); index++) {
+            Recording recording = finished.get(index);
+            if (recording.getStopTime().isAfter(expired) && finished.size() - index <= maxKept) {
+                break;
+            }
+            try {
+                delete(recording.getId());
+                log.info("Flight recording {} removed", recording.getId());
+            } catch (IOException e) {
+                log.warn("Could not delete the file of flight recording {}", recording.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Copies what the continuous recording holds to a new file, which the
+     * caller deletes once read. Throws IllegalStateException when continuous
+     * recording is off.
+     */
+    public Path dumpContinuous() throws IOException {
+        if (continuous == null || continuous.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("L'enregistrement continu n'est pas actif");
+        }
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, CONTINUOUS_NAME + "-", ".jfr");
+        continuous.dump(file);
+        return file;
+    }
+
+    // A closed recording no longer knows its size, its file does
+    private JfrRecordingDTO toDTO(Recording recording) {
+        long size = recording.getSize();
+        Path destination = recording.getDestination();
+        if (recording.getState() == RecordingState.CLOSED && destination != null) {
+            try {
+                size = Files.size(destination);
+            } catch (IOException e) {
+                size = 0;
+            }
+        }
+        return new JfrRecordingDTO(recording.getId(), recording.getName(), recording.getState().name(),
+                recording.getStartTime(), recording.getDuration(), size);
+    }
+}
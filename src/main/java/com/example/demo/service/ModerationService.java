@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Banned-term filter applied to commentaries before they are stored. The term
+ * list is read from a local file (one term per line, '#' for comments) and
+ * reloaded when the file changes. A new automaton is built off to the side and
+ * swapped in atomically, so concurrent scans never wait on a reload.
+ */
+@Service
+public class ModerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ModerationService.class);
+
+    @Value("${app.moderation.terms-file:}")
+    private String termsFile;
+
+    private volatile BannedTermMatcher matcher = BannedTermMatcher.empty();
+
+    private volatile FileTime loadedVersion;
+
+    @PostConstruct
+    public void init() {
+        reloadIfChanged();
+    }
+
+    public Optional<String> findBannedTerm(String content) {
+        return this.matcher.findFirst(content);
+    }
+
+    public int termCount() {
+        return this.matcher.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.moderation.reload-interval:PT30S}")
+    public void reloadIfChanged() {
+        if (termsFile == null || termsFile.isBlank()) {
+            return;
+        }
+        Path path = Path.of(termsFile);
+        try {
+            if (!Files.isReadable(path)) {
+                log.warn("Banned terms file {} is not readable, keeping {} terms", path, matcher.size());
+                return;
+            }
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(loadedVersion)) {
+                return;
+            }
+            this.matcher = BannedTermMatcher.of(parse(Files.readAllLines(path, StandardCharsets.UTF_8)));
+            this.loadedVersion = modified;
+            log.info("Loaded {} banned terms from {}", matcher.size(), path);
+        } catch (IOException e) {
+            log.warn("Could not reload banned terms from {}, keeping {} terms", path, matcher.size(), e);
+        }
+    }
+
+    public void replaceTerms(List<String> terms) {
+        this.matcher = BannedTermMatcher.of(parse(terms));
+    }
+
+    private List<String> parse(List<String> lines) {
+        return lines.stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the in-memory score aggregates once the application has started, from
+ * the snapshot when a usable one exists, otherwise from the score table.
+ */
+@Component
+@Order(3)
+public class ScoreAggregateLoader implements CommandLineRunner {
+
+    @Autowired
+    private GameRankingService gameRankingService;
+
+    @Autowired
+    private ScoreDistributionService scoreDistributionService;
+
+    @Autowired
+    private ScoreSnapshotService scoreSnapshotService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (this.scoreSnapshotService.restore()) {
+            return;
+        }
+        this.gameRankingService.rebuild();
+        this.scoreDistributionService.rebuild();
+    }
+}
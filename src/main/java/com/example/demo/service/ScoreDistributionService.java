@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.dto.ScoreBucketDTO;
+import com.example.demo.entity.dto.ScoreStandingDTO;
+import com.example.demo.repository.ScoreRepository;
+import com.example.demo.repository.ScoreRepository.GameScoreCount;
+
+/**
+ * Score distribution of each game, kept as a Fenwick tree of player counts over
+ * the bounded score range. Standing (rank and percentile), histogram and
+ * neighbouring scores are answered in O(log range) without touching the
+ * database. Scores outside the configured range are clamped to its bounds.
+ */
+@Service
+public class ScoreDistributionService implements ScoreListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreDistributionService.class);
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Value("${app.scores.min-value:0}")
+    private int minValue = 0;
+
+    @Value("${app.scores.max-value:100}")
+    private int maxValue = 100;
+
+    private volatile Map<Long, FenwickTree> distributions = new ConcurrentHashMap<>();
+
+    public void rebuild() {
+        Map<Long, FenwickTree> rebuilt = new ConcurrentHashMap<>();
+        for (GameScoreCount row : this.scoreRepository.countScoresByGameAndValue()) {
+            rebuilt.computeIfAbsent(row.getGameId(), id -> newTree())
+                    .add(valueIndex(row.getScore()), Math.toIntExact(row.getCount()));
+        }
+        this.distributions = rebuilt;
+        log.info("Score distributions rebuilt for {} games", rebuilt.size());
+    }
+
+    // Replaces every distribution with player counts per score value, indexed as by valueIndex
+    public void restore(Map<Long, int[]> histograms) {
+        Map<Long, FenwickTree> restored = new ConcurrentHashMap<>();
+        histograms.forEach((gameId, histogram) -> {
+            FenwickTree tree = newTree();
+            for (int value = 0; value < histogram.length; value++) {
+                if (histogram[value] != 0) {
+                    tree.add(value, histogram[value]);
+                }
+            }
+            restored.put(gameId, tree);
+        });
+        this.distributions = restored;
+    }
+
+    @Override
+    public void onScoreSaved(Score previous, Score current) {
+        if (previous != null) {
+            record(previous, -1);
+        }
+        record(current, 1);
+    }
+
+    @Override
+    public void onScoreDeleted(Score previous) {
+        record(previous, -1);
+    }
+
+    public ScoreStandingDTO getStanding(Long gameId, long score) {
+        FenwickTree tree = distributions.get(gameId);
+        if (tree == null) {
+            return new ScoreStandingDTO(gameId, score, 0, 0, 0);
+        }
+        int index = valueIndex(score);
+        synchronized (tree) {
+            long atMost = tree.countAtMost(index);
+            long below = tree.countAtMost(index - 1);
+            return new ScoreStandingDTO(gameId, score, tree.total() - atMost, atMost - below, below);
+        }
+    }
+
+    public List<ScoreBucketDTO> getHistogram(Long gameId, int buckets) {
+        int range = maxValue - minValue + 1;
+        int width = (range + buckets - 1) / buckets;
+        FenwickTree tree = distributions.get(gameId);
+        List<ScoreBucketDTO> histogram = new ArrayList<>();
+        for (int from = 0; from < range; from += width) {
+            int to = Math.min(range - 1, from + width - 1);
+            long players = 0;
+            if (tree != null) {
+                synchronized (tree) {
+                    players = tree.countAtMost(to) - tree.countAtMost(from - 1);
+                }
+            }
+            histogram.add(new ScoreBucketDTO(from + minValue, to + minValue, players));
+        }
+        return histogram;
+    }
+
+    /**
+     * The {@code count} distinct scores just above and just below {@code score},
+     * nearest first, with the number of players on each.
+     */
+    public Map<String, List<ScoreBucketDTO>> getNeighbours(Long gameId, long score, int count) {
+        List<ScoreBucketDTO> above = new ArrayList<>();
+        List<ScoreBucketDTO> below = new ArrayList<>();
+        FenwickTree tree = distributions.get(gameId);
+        if (tree != null) {
+            int index = valueIndex(score);
+            synchronized (tree) {
+                int value = index;
+                while (above.size() < count && (value = tree.kth(tree.countAtMost(value) + 1)) >= 0) {
+                    above.add(new ScoreBucketDTO(value + minValue, value + minValue, tree.count(value)));
+                }
+                value = index;
+                while (below.size() < count && (value = tree.kth(tree.countAtMost(value - 1))) >= 0) {
+                    below.add(new ScoreBucketDTO(value + minValue, value + minValue, tree.count(value)));
+                }
+            }
+        }
+        return Map.of("above", above, "below", below);
+    }
+
+    private void record(Score score, int delta) {
+        if (score.getGameId() == null || score.getScore() == null) {
+            return;
+        }
+        FenwickTree tree = distributions.computeIfAbsent(score.getGameId(), id -> newTree());
+        synchronized (tree) {
+            tree.add(valueIndex(score.getScore()), delta);
+        }
+    }
+
+    public int getMinValue() {
+        return minValue;
+    }
+
+    public int getMaxValue() {
+        return maxValue;
+    }
+
+    // Position of a score in the distribution, scores out of range count as the nearest bound
+    public int valueIndex(long score) {
+        return (int) (Math.max(minValue, Math.min(maxValue, score)) - minValue);
+    }
+
+    private FenwickTree newTree() {
+        return new FenwickTree(maxValue - minValue + 1);
+    }
+}
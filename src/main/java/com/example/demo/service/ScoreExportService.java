@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.repository.ScoreBulkRepository;
+
+/**
+ * Export of the score table as CSV. Rows are copied from the database cursor
+ * to the output as they arrive, so memory use does not depend on the number of
+ * scores exported.
+ */
+@Service
+public class ScoreExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreExportService.class);
+
+    private static final String[] COLUMNS = { "id", "score", "user_id", "game_id" };
+
+    @Autowired
+    private ScoreBulkRepository scoreBulkRepository;
+
+    @Value("${app.scores.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    /**
+     * Writes the scores, all of them or those of one game, as CSV with a header
+     * line and returns the number of rows written. The output is not closed.
+     */
+    public long exportCsv(Long gameId, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long[] rows = { 0 };
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        try {
+            scoreBulkRepository.streamScores(gameId, fetchSize, resultSet -> {
+                try {
+                    for (int column = 1; column <= COLUMNS.length; column++) {
+                        if (column > 1) {
+                            writer.write(',');
+                        }
+                        String value = resultSet.getString(column);
+                        if (value != null) {
+                            writer.write(value);
+                        }
+                    }
+                    writer.write('\n');
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // The client went away, stop reading the cursor
+            throw e.getCause();
+        }
+        writer.flush();
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        log.info("Exported {} scores in {} ms ({} rows/s)", rows[0], elapsed / 1_000_000,
+                rows[0] * 1_000_000_000L / elapsed);
+        return rows[0];
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.demo.service;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+import static java.time.temporal.ChronoUnit.HOURS;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.ScoreEvent;
+import com.example.demo.entity.ScoreRollup;
+import com.example.demo.entity.ScoreRollup.Resolution;
+import com.example.demo.entity.dto.ScoreTrendPointDTO;
+import com.example.demo.repository.ScoreEventRepository;
+import com.example.demo.repository.ScoreEventRepository.ScorePoint;
+import com.example.demo.repository.ScoreRollupRepository;
+import com.example.demo.repository.ScoreRollupRepository.ScoreAggregate;
+
+/**
+ * History of score writes as a downsampled time series. Every write appends a
+ * {@link ScoreEvent}; a scheduled job rolls complete hours of events up into
+ * hourly {@link ScoreRollup} rows and complete days of hours into daily rows,
+ * then drops raw events, hourly and daily rows past their retention. Storage
+ * therefore grows with time and number of games, not with write volume.
+ *
+ * The job only moves forward: the hours and days already rolled up are the
+ * ones before the latest stored bucket, so nothing is counted twice after a
+ * restart. When several nodes run it, the unique bucket key lets one of them
+ * write a bucket and the others resume from the table. Buckets are aggregated
+ * by the database. A trend query reads each part of its range from one tier
+ * only, the coarsest one not coarser than the requested step that still
+ * holds it.
+ */
+@Service
+public class ScoreHistoryService implements ScoreListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreHistoryService.class);
+
+    public static final int MAX_TREND_POINTS = 1000;
+
+    // An hour is rolled up this long after it ends, so writes in flight at the boundary are not missed
+    private static final Duration ROLLUP_LAG = Duration.ofMinutes(1);
+
+    // Longest span rolled up in one transaction when catching up
+    private static final Duration CATCH_UP_WINDOW = Duration.ofDays(1);
+
+    private static final class TrendBucket {
+        private String resolution = "RAW";
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        private void add(String resolution, long count, long sum, long min, long max) {
+            // Tiers are read coarsest first, the first one seen is the coarsest
+            if (this.count == 0) {
+                this.resolution = resolution;
+            }
+            this.count += count;
+            this.sum += sum;
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+        }
+    }
+
+    @Autowired
+    private ScoreEventRepository scoreEventRepository;
+
+    @Autowired
+    private ScoreRollupRepository scoreRollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.score-history.raw-retention:P2D}")
+    private Duration rawRetention = Duration.ofDays(2);
+
+    @Value("${app.score-history.hourly-retention:P90D}")
+    private Duration hourlyRetention = Duration.ofDays(90);
+
+    @Value("${app.score-history.daily-retention:P1825D}")
+    private Duration dailyRetention = Duration.ofDays(1825);
+
+    private Clock clock = Clock.systemUTC();
+
+    // Exclusive ends of the spans already rolled up into hours and days, read from the table on each rollup
+    private volatile Instant hourEnd;
+    private volatile Instant dayEnd;
+
+    @Override
+    public void onScoreSaved(Score previous, Score current) {
+        Instant now = clock.instant();
+        boolean sameRow = previous != null && Objects.equals(previous.getGameId(), current.getGameId())
+                && Objects.equals(previous.getUserId(), current.getUserId());
+        List<ScoreEvent> events = new ArrayList<>(2);
+        if (previous != null && !sameRow) {
+            events.add(new ScoreEvent(previous.getGameId(), previous.getUserId(), previous.getScore(), null, now));
+        }
+        if (!sameRow || !Objects.equals(previous.getScore(), current.getScore())) {
+            events.add(new ScoreEvent(current.getGameId(), current.getUserId(), sameRow ? previous.getScore() : null,
+                    current.getScore(), now));
+        }
+        append(events);
+    }
+
+    @Override
+    public void onScoreDeleted(Score previous) {
+        append(List.of(new ScoreEvent(previous.getGameId(), previous.getUserId(), previous.getScore(), null, clock.instant())));
+    }
+
+    @Scheduled(fixedDelayString = "${app.score-history.rollup-interval:PT10M}")
+    public void rollup() {
+        Instant now = clock.instant();
+        // Other nodes may have rolled up since the last run
+        hourEnd = end(Resolution.HOUR);
+        dayEnd = end(Resolution.DAY);
+        rollUpHours(now.minus(ROLLUP_LAG).truncatedTo(HOURS));
+        rollUpDays(hourEnd().truncatedTo(DAYS));
+        int events = scoreEventRepository.deleteOlderThan(min(now.minus(rawRetention).truncatedTo(HOURS), hourEnd()));
+        int hours = scoreRollupRepository.deleteOlderThan(Resolution.HOUR,
+                min(now.minus(hourlyRetention).truncatedTo(DAYS), dayEnd()));
+        int days = scoreRollupRepository.deleteOlderThan(Resolution.DAY, now.minus(dailyRetention).truncatedTo(DAYS));
+        log.debug("Score history rolled up to {}, pruned {} events, {} hourly and {} daily rollups",
+                hourEnd, events, hours, days);
+    }
+
+    /**
+     * Count, sum, min, max and average of the scores given to a game, per step
+     * from {@code from} (inclusive) to {@code to} (exclusive). Empty steps are
+     * left out. Where only coarser rollups remain, their whole bucket lands in
+     * the step containing its start.
+     */
+    public List<ScoreTrendPointDTO> getTrend(Long gameId, Instant from, Instant to, Duration step) {
+        if (!from.isBefore(to) || step.isNegative() || step.isZero()) {
+            throw new IllegalArgumentException("Intervalle ou pas invalide");
+        }
+        if (Duration.between(from, to).dividedBy(step) >= MAX_TREND_POINTS) {
+            throw new IllegalArgumentException("Trop de points demandés, augmentez le pas");
+        }
+        Instant now = clock.instant();
+        Instant hourEnd = hourEnd();
+        Instant dayEnd = dayEnd();
+        Instant hourFloor = min(now.minus(hourlyRetention).truncatedTo(DAYS), dayEnd);
+        Instant rawFloor = min(now.minus(rawRetention).truncatedTo(HOURS), hourEnd);
+
+        // Time before dailyUntil is read from daily rollups, then hourly rollups until rawFrom, then raw events
+        Instant dailyUntil;
+        Instant rawFrom;
+        if (step.compareTo(Resolution.DAY.getLength()) >= 0) {
+            dailyUntil = dayEnd;
+            rawFrom = hourEnd;
+        } else if (step.compareTo(Resolution.HOUR.getLength()) >= 0) {
+            dailyUntil = hourFloor;
+            rawFrom = hourEnd;
+        } else {
+            dailyUntil = hourFloor;
+            rawFrom = rawFloor;
+        }
+        dailyUntil = min(dailyUntil, rawFrom);
+
+        Map<Long, TrendBucket> buckets = new TreeMap<>();
+        if (from.isBefore(dailyUntil)) {
+            addRollups(buckets, from, step, scoreRollupRepository.findBetweenByGameId(gameId, Resolution.DAY, from,
+                    min(to, dailyUntil)));
+        }
+        Instant hourlyFrom = max(from, dailyUntil);
+        Instant hourlyTo = min(to, rawFrom);
+        if (hourlyFrom.isBefore(hourlyTo)) {
+            addRollups(buckets, from, step, scoreRollupRepository.findBetweenByGameId(gameId, Resolution.HOUR,
+                    hourlyFrom, hourlyTo));
+        }
+        Instant eventsFrom = max(from, rawFrom);
+        if (eventsFrom.isBefore(to)) {
+            for (ScorePoint point : scoreEventRepository.findScorePointsByGameId(gameId, eventsFrom, to)) {
+                long score = point.getScore();
+                bucket(buckets, from, step, point.getCreatedAt()).add("RAW", 1, score, score, score);
+            }
+        }
+
+        List<ScoreTrendPointDTO> trend = new ArrayList<>(buckets.size());
+        buckets.forEach((index, bucket) -> trend.add(new ScoreTrendPointDTO(from.plus(step.multipliedBy(index)),
+                bucket.resolution, bucket.count, bucket.sum, bucket.min, bucket.max)));
+        return trend;
+    }
+
+    private void append(List<ScoreEvent> events) {
+        List<ScoreEvent> valid = events.stream().filter(event -> event.getGameId() != null).toList();
+        if (!valid.isEmpty()) {
+            scoreEventRepository.saveAll(valid);
+        }
+    }
+
+    private void rollUpHours(Instant end) {
+        Instant start = hourEnd();
+        if (start.equals(Instant.EPOCH)) {
+            Instant earliest = scoreEventRepository.findEarliestCreatedAt();
+            if (earliest == null) {
+                return;
+            }
+            start = earliest.truncatedTo(HOURS);
+        }
+        while (start.isBefore(end)) {
+            Instant from = start;
+            Instant to = min(end, from.plus(CATCH_UP_WINDOW));
+            if (!rollUp(Resolution.HOUR, from, to, hour -> scoreEventRepository.aggregateBetween(hour,
+                    hour.plus(Resolution.HOUR.getLength())))) {
+                hourEnd = end(Resolution.HOUR);
+                if (!hourEnd.isAfter(from)) {
+                    return;
+                }
+                start = hourEnd;
+                continue;
+            }
+            hourEnd = to;
+            start = to;
+        }
+    }
+
+    private void rollUpDays(Instant end) {
+        Instant start = dayEnd();
+        if (start.equals(Instant.EPOCH)) {
+            Instant earliest = scoreRollupRepository.findEarliestBucketStart(Resolution.HOUR);
+            if (earliest == null) {
+                return;
+            }
+            start = earliest.truncatedTo(DAYS);
+        }
+        while (start.isBefore(end)) {
+            Instant from = start;
+            Instant to = min(end, from.plus(CATCH_UP_WINDOW.multipliedBy(31)));
+            if (!rollUp(Resolution.DAY, from, to, day -> scoreRollupRepository.aggregateBetween(Resolution.HOUR, day,
+                    day.plus(Resolution.DAY.getLength())))) {
+                dayEnd = end(Resolution.DAY);
+                if (!dayEnd.isAfter(from)) {
+                    return;
+                }
+                start = dayEnd;
+                continue;
+            }
+            dayEnd = to;
+            start = to;
+        }
+    }
+
+    /**
+     * Writes the buckets of one resolution from {@code from} to {@code to} in one
+     * transaction, each aggregated by the database. Returns false when another
+     * node already wrote one of them: the unique bucket key rejects the insert
+     * and the caller moves on from what is now in the table.
+     */
+    private boolean rollUp(Resolution resolution, Instant from, Instant to,
+            Function<Instant, List<ScoreAggregate>> aggregates) {
+        try {
+            transactionTemplate.execute(status -> {
+                List<ScoreRollup> rollups = new ArrayList<>();
+                for (Instant bucket = from; bucket.isBefore(to); bucket = bucket.plus(resolution.getLength())) {
+                    for (ScoreAggregate aggregate : aggregates.apply(bucket)) {
+                        rollups.add(new ScoreRollup(aggregate.getGameId(), resolution, bucket, aggregate.getScoreCount(),
+                                aggregate.getScoreSum(), aggregate.getMinScore(), aggregate.getMaxScore()));
+                    }
+                }
+                scoreRollupRepository.saveAll(rollups);
+                return null;
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("{} rollups from {} to {} already written by another node", resolution, from, to);
+            return false;
+        }
+    }
+
+    private Instant hourEnd() {
+        if (hourEnd == null) {
+            hourEnd = end(Resolution.HOUR);
+        }
+        return hourEnd;
+    }
+
+    private Instant dayEnd() {
+        if (dayEnd == null) {
+            dayEnd = end(Resolution.DAY);
+        }
+        return dayEnd;
+    }
+
+    // End of the latest stored bucket, the epoch when nothing was rolled up yet
+    private Instant end(Resolution resolution) {
+        Instant latest = scoreRollupRepository.findLatestBucketStart(resolution);
+        return latest == null ? Instant.EPOCH : latest.plus(resolution.getLength());
+    }
+
+    private void addRollups(Map<Long, TrendBucket> buckets, Instant from, Duration step, List<ScoreRollup> rollups) {
+        for (ScoreRollup rollup : rollups) {
+            bucket(buckets, from, step, rollup.getBucketStart()).add(rollup.getResolution().name(),
+                    rollup.getScoreCount(), rollup.getScoreSum(), rollup.getMinScore(), rollup.getMaxScore());
+        }
+    }
+
+    private TrendBucket bucket(Map<Long, TrendBucket> buckets, Instant from, Duration step, Instant time) {
+        return buckets.computeIfAbsent(Duration.between(from, time).dividedBy(step), index -> new TrendBucket());
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
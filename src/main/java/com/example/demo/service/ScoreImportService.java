@@ -0,0 +1,158 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.dto.ScoreImportOutcomeDTO;
+import com.example.demo.entity.dto.ScoreImportOutcomeDTO.Status;
+import com.example.demo.repository.ScoreBulkRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk score import with one score per user and game. The JSON array is read
+ * one element at a time and written in chunks, each chunk in its own
+ * transaction: rows repeated within a chunk keep the last one, the existing
+ * rows are read in one query to tell inserts from updates, then the changed
+ * rows go to the database as one batched upsert. Outcomes are handed to the
+ * caller chunk by chunk, so neither the request nor the response is held in
+ * memory.
+ */
+@Service
+public class ScoreImportService {
+
+    private record Key(long userId, long gameId) {
+    }
+
+    private record Row(int index, Score score) {
+    }
+
+    @Autowired
+    private ScoreBulkRepository scoreBulkRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private List<ScoreListener> scoreListeners = new ArrayList<>();
+
+    @Value("${app.scores.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    /**
+     * Imports a JSON array of scores and returns the number of rows read. Rows
+     * read before a malformed element are still written.
+     */
+    public int importScores(InputStream body, Consumer<List<ScoreImportOutcomeDTO>> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Le corps doit être un tableau de notes");
+            }
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            int index = 0;
+            try {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    chunk.add(new Row(index++, objectMapper.readValue(parser, Score.class)));
+                    if (chunk.size() == chunkSize) {
+                        List<Row> full = chunk;
+                        chunk = new ArrayList<>(chunkSize);
+                        writeChunk(full, sink);
+                    }
+                }
+                if (parser.currentToken() != JsonToken.END_ARRAY) {
+                    throw new IllegalArgumentException("Note attendue à l'index " + index);
+                }
+            } finally {
+                writeChunk(chunk, sink);
+            }
+            return index;
+        }
+    }
+
+    private void writeChunk(List<Row> chunk, Consumer<List<ScoreImportOutcomeDTO>> sink) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ScoreImportOutcomeDTO> outcomes = new ArrayList<>(chunk.size());
+        Map<Key, Row> latest = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            Score score = row.score();
+            if (score.getUserId() == null || score.getGameId() == null || score.getScore() == null) {
+                outcomes.add(outcome(row, null, Status.INVALID));
+                continue;
+            }
+            Row superseded = latest.put(new Key(score.getUserId(), score.getGameId()), row);
+            if (superseded != null) {
+                outcomes.add(outcome(superseded, null, Status.SUPERSEDED));
+            }
+        }
+
+        List<Score[]> changes = new ArrayList<>();
+        if (!latest.isEmpty()) {
+            transactionTemplate.execute(status -> {
+                Map<Key, Score> existing = findExisting(latest.keySet());
+                List<Score> upserts = new ArrayList<>();
+                for (Map.Entry<Key, Row> entry : latest.entrySet()) {
+                    Score previous = existing.get(entry.getKey());
+                    Score score = entry.getValue().score();
+                    if (previous != null && Objects.equals(previous.getScore(), score.getScore())) {
+                        outcomes.add(outcome(entry.getValue(), previous.getId(), Status.UNCHANGED));
+                    } else {
+                        upserts.add(score);
+                    }
+                }
+                if (upserts.isEmpty()) {
+                    return null;
+                }
+                scoreBulkRepository.upsert(upserts);
+                Map<Key, Score> written = findExisting(latest.keySet());
+                for (Score score : upserts) {
+                    Key key = new Key(score.getUserId(), score.getGameId());
+                    Score previous = existing.get(key);
+                    Score current = written.get(key);
+                    outcomes.add(outcome(latest.get(key), current.getId(), previous == null ? Status.INSERTED : Status.UPDATED));
+                    changes.add(new Score[] { previous, current });
+                }
+                return null;
+            });
+        }
+
+        // Listeners only hear about committed writes
+        changes.forEach(change -> scoreListeners.forEach(listener -> listener.onScoreSaved(change[0], change[1])));
+        outcomes.sort(Comparator.comparingInt(ScoreImportOutcomeDTO::getIndex));
+        sink.accept(outcomes);
+    }
+
+    private Map<Key, Score> findExisting(Set<Key> keys) {
+        List<Object[]> pairs = keys.stream().map(key -> new Object[] { key.userId(), key.gameId() }).toList();
+        Map<Key, Score> existing = new HashMap<>();
+        for (Score score : scoreBulkRepository.findByUserIdAndGameIdPairs(pairs)) {
+            existing.put(new Key(score.getUserId(), score.getGameId()), score);
+        }
+        return existing;
+    }
+
+    private ScoreImportOutcomeDTO outcome(Row row, Long id, Status status) {
+        Score score = row.score();
+        return new ScoreImportOutcomeDTO(row.index(), id, score.getUserId(), score.getGameId(), status);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Score;
+
+/**
+ * Receives every score write made through {@link ScoreService}, after it has
+ * been stored. Used to keep in-memory score aggregates in sync with the table.
+ */
+public interface ScoreListener {
+
+    /**
+     * @param previous the score as it was before the write, or null for an insert
+     * @param current  the score as stored
+     */
+    void onScoreSaved(Score previous, Score current);
+
+    void onScoreDeleted(Score previous);
+}
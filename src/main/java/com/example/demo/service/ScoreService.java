@@ -3,16 +3,24 @@ package com.example.demo.service;
 import com.example.demo.entity.Score;
 import com.example.demo.repository.ScoreRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ScoreService {
+    private static final int MAX_UPDATE_ATTEMPTS = 10;
+
     @Autowired
     private ScoreRepository scoreRepository;
 
+    @Autowired(required = false)
+    private List<ScoreListener> scoreListeners = new ArrayList<>();
+
     public List<Score> findAll(){
         return scoreRepository.findAll();
     }
@@ -21,20 +29,80 @@ public class ScoreService {
         return scoreRepository.findById(id);
     }
 
+    // One score per user and game: a new score for an already rated game replaces the existing one
     public Score save(Score score) {
-        return scoreRepository.save(score);
+        Optional<Score> existing = score.getId() != null ? scoreRepository.findById(score.getId()) : Optional.empty();
+        if (existing.isEmpty()) {
+            // An unknown id is not kept, the score is inserted with a generated one
+            score.setId(null);
+            if (score.getUserId() != null && score.getGameId() != null) {
+                existing = scoreRepository.findByUserIdAndGameId(score.getUserId(), score.getGameId());
+            }
+        }
+        if (existing.isPresent()) {
+            Optional<Score> updated = update(existing.get().getId(), score, null, false);
+            if (updated.isPresent()) {
+                return updated.get();
+            }
+            // Deleted in the meantime
+            score.setId(null);
+        }
+        Score saved = scoreRepository.save(score);
+        scoreListeners.forEach(listener -> listener.onScoreSaved(null, saved));
+        return saved;
     }
 
     public void deleteById(Long id) {
+        Optional<Score> previous = scoreRepository.findById(id).map(this::snapshot);
         scoreRepository.deleteById(id);
+        previous.ifPresent(score -> scoreListeners.forEach(listener -> listener.onScoreDeleted(score)));
     }
 
     public Optional<Score> update(Long id, Score scoreDetails) {
-        return scoreRepository.findById(id).map(score -> {
-            score.setScore(scoreDetails.getScore());
-            score.setUserId(scoreDetails.getUserId());
-            score.setGameId(scoreDetails.getGameId());
-            return scoreRepository.save(score);
-        });
+        return update(id, scoreDetails, null, false);
+    }
+
+    /**
+     * Writes the score with a single UPDATE conditioned on the version that was
+     * read, so a concurrent write is never overwritten unseen. With an expected
+     * version (If-Match) a stale version fails with an
+     * {@link OptimisticLockingFailureException}, otherwise the write is retried
+     * on the new version. With {@code keepBest} a score that is not higher than
+     * the current one leaves the row untouched.
+     */
+    public Optional<Score> update(Long id, Score scoreDetails, Long expectedVersion, boolean keepBest) {
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            Optional<Score> current = scoreRepository.findById(id);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            Score previous = snapshot(current.get());
+            if (expectedVersion != null && !expectedVersion.equals(previous.getVersion())) {
+                throw new OptimisticLockingFailureException("La note a été modifiée entre-temps");
+            }
+            if (keepBest && previous.getScore() != null
+                    && (scoreDetails.getScore() == null || scoreDetails.getScore() <= previous.getScore())) {
+                return Optional.of(previous);
+            }
+            int updated = scoreRepository.updateIfVersion(id, previous.getVersion(), scoreDetails.getScore(),
+                    scoreDetails.getUserId(), scoreDetails.getGameId());
+            if (updated == 1) {
+                Score saved = new Score(id, scoreDetails.getScore(), scoreDetails.getUserId(), scoreDetails.getGameId());
+                saved.setVersion(previous.getVersion() + 1);
+                scoreListeners.forEach(listener -> listener.onScoreSaved(previous, saved));
+                return Optional.of(saved);
+            }
+            if (expectedVersion != null) {
+                throw new OptimisticLockingFailureException("La note a été modifiée entre-temps");
+            }
+        }
+        throw new ConcurrencyFailureException("La note est modifiée trop souvent, réessayez");
+    }
+
+    // Copy taken before a write, the managed entity itself is modified in place
+    private Score snapshot(Score score) {
+        Score copy = new Score(score.getId(), score.getScore(), score.getUserId(), score.getGameId());
+        copy.setVersion(score.getVersion());
+        return copy;
     }
 }
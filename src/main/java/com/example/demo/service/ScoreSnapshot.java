@@ -0,0 +1,193 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * Binary file of per-game score aggregates, read through a memory mapping so
+ * that opening it costs nothing and lookups only touch the pages they need.
+ *
+ * Layout, big-endian: a header (magic, format, min and max score value,
+ * watermark, creation time, total number of scores, number of games) followed
+ * by one fixed-size record per game sorted by game id: id, sum, count and one
+ * player count per score value. Files are written next to the target and
+ * renamed over it, a reader never sees a partial file.
+ */
+public final class ScoreSnapshot {
+
+    private static final int MAGIC = 0x53434F52;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES + 3 * Long.BYTES + Integer.BYTES;
+    private static final int CREATED_AT_OFFSET = 4 * Integer.BYTES + Long.BYTES;
+
+    // Aggregate of one game; the histogram is indexed by score value minus the minimum value
+    public static final class GameAggregate {
+        private final long gameId;
+        private long sum;
+        private long count;
+        private final int[] histogram;
+
+        public GameAggregate(long gameId, long sum, long count, int[] histogram) {
+            this.gameId = gameId;
+            this.sum = sum;
+            this.count = count;
+            this.histogram = histogram;
+        }
+
+        public void apply(long score, int bucket, int sign) {
+            sum += sign * score;
+            count += sign;
+            histogram[bucket] += sign;
+        }
+
+        public long getGameId() {
+            return gameId;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public int[] getHistogram() {
+            return histogram;
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final int minValue;
+    private final int maxValue;
+    private final long watermark;
+    private final long createdAt;
+    private final long totalScores;
+    private final int gameCount;
+
+    private ScoreSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IllegalStateException("Not a score snapshot");
+        }
+        this.minValue = buffer.getInt(8);
+        this.maxValue = buffer.getInt(12);
+        this.watermark = buffer.getLong(16);
+        this.createdAt = buffer.getLong(24);
+        this.totalScores = buffer.getLong(32);
+        this.gameCount = buffer.getInt(40);
+        if (maxValue < minValue || buffer.capacity() != HEADER_SIZE + (long) gameCount * recordSize(minValue, maxValue)) {
+            throw new IllegalStateException("Truncated score snapshot");
+        }
+    }
+
+    public static ScoreSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid once the channel is closed
+            return new ScoreSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static void write(Path path, int minValue, int maxValue, long watermark, long createdAt, long totalScores,
+            int gameCount, Iterator<GameAggregate> games) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            int values = maxValue - minValue + 1;
+            long size = HEADER_SIZE + (long) gameCount * recordSize(minValue, maxValue);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                out.putInt(MAGIC).putInt(FORMAT).putInt(minValue).putInt(maxValue)
+                        .putLong(watermark).putLong(createdAt).putLong(totalScores).putInt(gameCount);
+                for (int i = 0; i < gameCount; i++) {
+                    GameAggregate game = games.next();
+                    out.putLong(game.gameId).putLong(game.sum).putLong(game.count);
+                    for (int value = 0; value < values; value++) {
+                        out.putInt(game.histogram[value]);
+                    }
+                }
+                out.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Refreshes the creation time of a snapshot that is still current, without rewriting it
+    public static void touch(Path path, long createdAt) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, createdAt), CREATED_AT_OFFSET);
+            channel.force(false);
+        }
+    }
+
+    public int getMinValue() {
+        return minValue;
+    }
+
+    public int getMaxValue() {
+        return maxValue;
+    }
+
+    // Id of the last score event included
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getTotalScores() {
+        return totalScores;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public GameAggregate get(int index) {
+        int position = HEADER_SIZE + index * recordSize(minValue, maxValue);
+        int[] histogram = new int[maxValue - minValue + 1];
+        for (int value = 0; value < histogram.length; value++) {
+            histogram[value] = buffer.getInt(position + 3 * Long.BYTES + value * Integer.BYTES);
+        }
+        return new GameAggregate(gameId(index), buffer.getLong(position + Long.BYTES),
+                buffer.getLong(position + 2 * Long.BYTES), histogram);
+    }
+
+    // Position of the game in the file, or -1 when it has no score
+    public int indexOf(long gameId) {
+        int low = 0;
+        int high = gameCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long id = gameId(middle);
+            if (id < gameId) {
+                low = middle + 1;
+            } else if (id > gameId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private long gameId(int index) {
+        return buffer.getLong(HEADER_SIZE + index * recordSize(minValue, maxValue));
+    }
+
+    private static int recordSize(int minValue, int maxValue) {
+        return 3 * Long.BYTES + (maxValue - minValue + 1) * Integer.BYTES;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.ScoreEvent;
+import com.example.demo.repository.ScoreEventRepository;
+import com.example.demo.repository.ScoreRepository;
+import com.example.demo.repository.ScoreRepository.GameScoreCount;
+import com.example.demo.repository.ScoreRepository.GameScoreTotals;
+import com.example.demo.service.ScoreSnapshot.GameAggregate;
+
+/**
+ * Checkpoints the per-game score aggregates (sum, count and histogram) to a
+ * {@link ScoreSnapshot} file so that a restart does not scan the score table.
+ *
+ * The snapshot is derived from the database, not from memory: it holds every
+ * score event up to its watermark, and each checkpoint folds the events written
+ * since into a new file. On startup the aggregates are loaded from the file and
+ * only the events after the watermark are replayed. A snapshot is not used, and
+ * the aggregates are rebuilt from the score table, when it is missing, was
+ * written for another score range, is older than the raw event retention, or
+ * when its score count does not match the table after replay.
+ */
+@Service
+public class ScoreSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreSnapshotService.class);
+
+    // Events this recent are left to the next checkpoint, their transaction may not be visible yet
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(1);
+
+    private static final int REPLAY_PAGE_SIZE = 1000;
+
+    private record Totals(Long gameId, long count, Long sum) implements GameScoreTotals {
+        public Long getGameId() {
+            return gameId;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public Long getSum() {
+            return sum;
+        }
+    }
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private ScoreEventRepository scoreEventRepository;
+
+    @Autowired
+    private GameRankingService gameRankingService;
+
+    @Autowired
+    private ScoreDistributionService scoreDistributionService;
+
+    @Value("${app.score-snapshot.file:}")
+    private String snapshotFile;
+
+    @Value("${app.score-history.raw-retention:P2D}")
+    private Duration rawRetention = Duration.ofDays(2);
+
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Loads the aggregates of the ranking and distribution services from the
+     * snapshot and replays the events written after it. Returns false when no
+     * usable snapshot exists, the caller then rebuilds from the score table.
+     */
+    public boolean restore() {
+        ScoreSnapshot snapshot = openUsable();
+        if (snapshot == null) {
+            return false;
+        }
+        List<GameScoreTotals> totals = new ArrayList<>(snapshot.getGameCount());
+        Map<Long, int[]> histograms = new HashMap<>(snapshot.getGameCount() * 2);
+        for (int index = 0; index < snapshot.getGameCount(); index++) {
+            GameAggregate game = snapshot.get(index);
+            totals.add(new Totals(game.getGameId(), game.getCount(), game.getSum()));
+            histograms.put(game.getGameId(), game.getHistogram());
+        }
+        gameRankingService.rebuild(totals);
+        scoreDistributionService.restore(histograms);
+
+        long[] expectedScores = { snapshot.getTotalScores() };
+        int[] replayed = { 0 };
+        replay(snapshot.getWatermark(), clock.instant().plus(COMMIT_LAG), event -> {
+            Score previous = event.getPreviousScore() == null ? null
+                    : new Score(null, event.getPreviousScore(), event.getUserId(), event.getGameId());
+            Score current = event.getScore() == null ? null
+                    : new Score(null, event.getScore(), event.getUserId(), event.getGameId());
+            if (current != null) {
+                gameRankingService.onScoreSaved(previous, current);
+                scoreDistributionService.onScoreSaved(previous, current);
+            } else if (previous != null) {
+                gameRankingService.onScoreDeleted(previous);
+                scoreDistributionService.onScoreDeleted(previous);
+            }
+            expectedScores[0] += netScores(event);
+            replayed[0]++;
+        });
+
+        long actualScores = scoreRepository.count();
+        if (actualScores != expectedScores[0]) {
+            log.warn("Score snapshot expects {} scores but the table has {}, rebuilding", expectedScores[0], actualScores);
+            return false;
+        }
+        log.info("Score aggregates restored from snapshot ({} games) and {} replayed events",
+                snapshot.getGameCount(), replayed[0]);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.score-snapshot.interval:PT5M}",
+            initialDelayString = "${app.score-snapshot.interval:PT5M}")
+    public void checkpoint() {
+        if (snapshotFile == null || snapshotFile.isBlank()) {
+            return;
+        }
+        try {
+            ScoreSnapshot previous = openUsable();
+            if (previous == null) {
+                writeFull();
+            } else {
+                writeIncrement(previous);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write score snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private void writeFull() throws IOException {
+        // Read first: writes racing the scan below are replayed, at worst counted twice and caught by the count check
+        Long maxId = scoreEventRepository.findMaxId();
+        long watermark = maxId == null ? 0 : maxId;
+        int minValue = scoreDistributionService.getMinValue();
+        int maxValue = scoreDistributionService.getMaxValue();
+        TreeMap<Long, GameAggregate> games = new TreeMap<>();
+        long totalScores = 0;
+        for (GameScoreTotals row : scoreRepository.sumScoresByGame()) {
+            games.put(row.getGameId(), new GameAggregate(row.getGameId(), row.getSum() == null ? 0 : row.getSum(),
+                    row.getCount(), new int[maxValue - minValue + 1]));
+            totalScores += row.getCount();
+        }
+        for (GameScoreCount row : scoreRepository.countScoresByGameAndValue()) {
+            games.get(row.getGameId()).getHistogram()[scoreDistributionService.valueIndex(row.getScore())] += row.getCount();
+        }
+        ScoreSnapshot.write(path(), minValue, maxValue, watermark, clock.millis(), totalScores, games.size(),
+                games.values().iterator());
+        log.info("Score snapshot written from the score table ({} games)", games.size());
+    }
+
+    private void writeIncrement(ScoreSnapshot previous) throws IOException {
+        // Games touched since the watermark, starting from their value in the previous snapshot
+        TreeMap<Long, GameAggregate> touched = new TreeMap<>();
+        long[] totalScores = { previous.getTotalScores() };
+        long watermark = replay(previous.getWatermark(), clock.instant().minus(COMMIT_LAG), event -> {
+            GameAggregate game = touched.computeIfAbsent(event.getGameId(), gameId -> {
+                int index = previous.indexOf(gameId);
+                return index >= 0 ? previous.get(index)
+                        : new GameAggregate(gameId, 0, 0, new int[previous.getMaxValue() - previous.getMinValue() + 1]);
+            });
+            if (event.getPreviousScore() != null) {
+                game.apply(event.getPreviousScore(), scoreDistributionService.valueIndex(event.getPreviousScore()), -1);
+            }
+            if (event.getScore() != null) {
+                game.apply(event.getScore(), scoreDistributionService.valueIndex(event.getScore()), 1);
+            }
+            totalScores[0] += netScores(event);
+        });
+
+        if (touched.isEmpty()) {
+            ScoreSnapshot.touch(path(), clock.millis());
+            return;
+        }
+        int gameCount = previous.getGameCount();
+        for (GameAggregate game : touched.values()) {
+            boolean existed = previous.indexOf(game.getGameId()) >= 0;
+            gameCount += existed && game.getCount() <= 0 ? -1 : !existed && game.getCount() > 0 ? 1 : 0;
+        }
+        ScoreSnapshot.write(path(), previous.getMinValue(), previous.getMaxValue(), watermark, clock.millis(),
+                totalScores[0], gameCount, merge(previous, touched));
+        log.debug("Score snapshot advanced to event {} ({} games changed)", watermark, touched.size());
+    }
+
+    /**
+     * Hands the events after the watermark to the handler in id order and
+     * returns the id of the last one handled. Ids are assigned before commit,
+     * so a lower id may become visible after a higher one: the replay stops at
+     * the first event not older than {@code before} rather than skipping it,
+     * and the next replay starts from it.
+     */
+    private long replay(long watermark, Instant before, Consumer<ScoreEvent> handler) {
+        List<ScoreEvent> events;
+        do {
+            events = scoreEventRepository.findAfter(watermark, PageRequest.of(0, REPLAY_PAGE_SIZE));
+            for (ScoreEvent event : events) {
+                if (!event.getCreatedAt().isBefore(before)) {
+                    return watermark;
+                }
+                handler.accept(event);
+                watermark = event.getId();
+            }
+        } while (events.size() == REPLAY_PAGE_SIZE);
+        return watermark;
+    }
+
+    // Previous records in game id order, with touched games replaced and emptied games left out
+    private Iterator<GameAggregate> merge(ScoreSnapshot previous, TreeMap<Long, GameAggregate> touched) {
+        Iterator<GameAggregate> changes = touched.values().iterator();
+        return new Iterator<>() {
+            private int index;
+            private GameAggregate change = changes.hasNext() ? changes.next() : null;
+            private GameAggregate next = advance();
+
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            public GameAggregate next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                GameAggregate current = next;
+                next = advance();
+                return current;
+            }
+
+            private GameAggregate advance() {
+                while (index < previous.getGameCount() || change != null) {
+                    GameAggregate candidate;
+                    long stored = index < previous.getGameCount() ? previous.get(index).getGameId() : Long.MAX_VALUE;
+                    if (change != null && change.getGameId() <= stored) {
+                        if (change.getGameId() == stored) {
+                            index++;
+                        }
+                        candidate = change;
+                        change = changes.hasNext() ? changes.next() : null;
+                    } else {
+                        candidate = previous.get(index++);
+                    }
+                    if (candidate.getCount() > 0) {
+                        return candidate;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    private ScoreSnapshot openUsable() {
+        if (snapshotFile == null || snapshotFile.isBlank() || !Files.isReadable(path())) {
+            return null;
+        }
+        try {
+            ScoreSnapshot snapshot = ScoreSnapshot.open(path());
+            if (snapshot.getMinValue() != scoreDistributionService.getMinValue()
+                    || snapshot.getMaxValue() != scoreDistributionService.getMaxValue()) {
+                log.info("Score snapshot {} was written for another score range, ignoring it", snapshotFile);
+                return null;
+            }
+            // Events after the watermark may have been pruned
+            if (snapshot.getCreatedAt() < clock.instant().minus(rawRetention).plus(COMMIT_LAG).toEpochMilli()) {
+                log.info("Score snapshot {} is older than the score event retention, ignoring it", snapshotFile);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Could not read score snapshot {}, ignoring it", snapshotFile, e);
+            return null;
+        }
+    }
+
+    // +1 for a new score, -1 for a removed one
+    private long netScores(ScoreEvent event) {
+        return (event.getScore() != null ? 1 : 0) - (event.getPreviousScore() != null ? 1 : 0);
+    }
+
+    private Path path() {
+        return Path.of(snapshotFile);
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.demo.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entity.Commentary;
+import com.example.demo.entity.Score;
+import com.example.demo.repository.SyntheticDataRepository;
+import com.example.demo.repository.SyntheticDataRepository.CommentaryRow;
+import com.example.demo.repository.SyntheticDataRepository.UserRow;
+import com.github.javafaker.Faker;
+import com.github.slugify.Slugify;
+
+/**
+ * Fills the database with a large synthetic data set for load tests, after
+ * the seed users and before the score aggregates are loaded.
+ *
+ * Games are owned following a Zipf law (game 1 is the most popular, skew 0
+ * spreads them evenly) and library sizes a log-normal law of the given mean.
+ * Each owned game has a score with the score density probability, around a
+ * mean of its own, and commentaries are spread over games by popularity, a
+ * share of them replying to an earlier commentary of the same game.
+ *
+ * Users are generated by chunks of batch-size on a pool of producers, each
+ * chunk from a random seeded with the seed and its index, so the same
+ * settings give the same rows whatever the number of producers. Generated
+ * users share one password and an email at generated.test; the generator does
+ * nothing when such users already exist.
+ */
+@Component
+@Order(2)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String EMAIL_DOMAIN = "generated.test";
+
+    private static final int MAX_USERNAME_LENGTH = 15;
+
+    private static final long USERS = 1;
+    private static final long GAMES = 2;
+    private static final long COMMENTARIES = 3;
+
+    private static final class Producer {
+
+        private final Random random = new Random();
+
+        private final Faker faker = new Faker(Locale.FRENCH, random);
+
+        private final Slugify slugify = Slugify.builder().build();
+    }
+
+    @Autowired
+    private SyntheticDataRepository syntheticDataRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.data-generator.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.data-generator.seed:42}")
+    private long seed = 42;
+
+    @Value("${app.data-generator.users:100000}")
+    private int users = 100000;
+
+    @Value("${app.data-generator.games:2000}")
+    private int games = 2000;
+
+    @Value("${app.data-generator.library-size.mean:25}")
+    private double librarySizeMean = 25;
+
+    @Value("${app.data-generator.library-size.sigma:1.0}")
+    private double librarySizeSigma = 1.0;
+
+    @Value("${app.data-generator.library-size.max:500}")
+    private int librarySizeMax = 500;
+
+    @Value("${app.data-generator.game-popularity-skew:1.0}")
+    private double gamePopularitySkew = 1.0;
+
+    @Value("${app.data-generator.score-density:0.6}")
+    private double scoreDensity = 0.6;
+
+    @Value("${app.data-generator.commentaries-per-game:20}")
+    private double commentariesPerGame = 20;
+
+    @Value("${app.data-generator.reply-ratio:0.4}")
+    private double replyRatio = 0.4;
+
+    @Value("${app.data-generator.password:Generated!1}")
+    private String password = "Generated!1";
+
+    @Value("${app.data-generator.producers:4}")
+    private int producers = 4;
+
+    @Value("${app.data-generator.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${app.scores.min-value:0}")
+    private int minScore;
+
+    @Value("${app.scores.max-value:100}")
+    private int maxScore = 100;
+
+    private final ThreadLocal<Producer> producer = ThreadLocal.withInitial(Producer::new);
+
+    private final AtomicLong userCount = new AtomicLong();
+    private final AtomicLong libraryCount = new AtomicLong();
+    private final AtomicLong scoreCount = new AtomicLong();
+    private final AtomicLong commentaryCount = new AtomicLong();
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+        if (syntheticDataRepository.countUsersByEmailDomain(EMAIL_DOMAIN) > 0) {
+            log.info("Synthetic data already generated, skipping");
+            return;
+        }
+        long start = System.nanoTime();
+
+        Set<Long> existingGames = new HashSet<>(syntheticDataRepository.findGameIds());
+        List<Long> newGames = new ArrayList<>();
+        for (long gameId = 1; gameId <= games; gameId++) {
+            if (!existingGames.contains(gameId)) {
+                newGames.add(gameId);
+            }
+        }
+        inBatches(newGames, syntheticDataRepository::insertGames);
+
+        double[] popularity = cumulativeWeights(games, gamePopularitySkew);
+        double[] gameMeans = gameMeans(new Random(chunkSeed(GAMES, 0)));
+        long firstUserId = syntheticDataRepository.nextId("users");
+        String encodedPassword = passwordEncoder.encode(password);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int chunk = 0; chunk * (long) batchSize < users; chunk++) {
+                int index = chunk;
+                tasks.add(executor.submit(() -> generateUsers(index, firstUserId, encodedPassword, popularity, gameMeans)));
+            }
+            await(tasks);
+            syntheticDataRepository.restartIdentity("users");
+
+            tasks.clear();
+            long[] counts = commentaryCounts(popularity, users == 0 ? 0 : commentariesPerGame);
+            long commentaryId = syntheticDataRepository.nextId("commentary");
+            int firstGame = 0;
+            long chunkSize = 0;
+            for (int game = 0; game < games; game++) {
+                chunkSize += counts[game];
+                if (chunkSize >= batchSize || game == games - 1) {
+                    int from = firstGame;
+                    int to = game + 1;
+                    long firstId = commentaryId;
+                    tasks.add(executor.submit(() -> generateCommentaries(from, to, firstId, counts, firstUserId)));
+                    commentaryId += chunkSize;
+                    firstGame = game + 1;
+                    chunkSize = 0;
+                }
+            }
+            await(tasks);
+            syntheticDataRepository.restartIdentity("commentary");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        long rows = userCount.get() + libraryCount.get() + scoreCount.get() + commentaryCount.get() + newGames.size();
+        log.info("Generated {} users, {} games, {} library entries, {} scores and {} commentaries in {} ms ({} rows/s)",
+                userCount.get(), newGames.size(), libraryCount.get(), scoreCount.get(), commentaryCount.get(), elapsed,
+                rows * 1000 / Math.max(1, elapsed));
+    }
+
+    private void generateUsers(int chunk, long firstUserId, String encodedPassword, double[] popularity, double[] gameMeans) {
+        Producer producer = this.producer.get();
+        Random random = producer.random;
+        random.setSeed(chunkSeed(USERS, chunk));
+
+        List<UserRow> userRows = new ArrayList<>();
+        List<long[]> libraries = new ArrayList<>();
+        List<Score> scores = new ArrayList<>();
+        long end = Math.min(users, (chunk + 1L) * batchSize);
+        for (long index = (long) chunk * batchSize; index < end; index++) {
+            long userId = firstUserId + index;
+            String suffix = Long.toString(index);
+            String name = ascii(producer.faker.name().firstName());
+            if (name.isEmpty()) {
+                name = "joueur";
+            }
+            String username = name.substring(0, Math.min(name.length(), MAX_USERNAME_LENGTH - suffix.length())) + suffix;
+            String slug = producer.slugify.slugify(username);
+            userRows.add(new UserRow(userId, username, slug, slug + "@" + EMAIL_DOMAIN, encodedPassword,
+                    producer.faker.lorem().paragraph(random.nextInt(8))));
+
+            for (int game : library(random, popularity, librarySize(random, librarySizeMean, librarySizeSigma,
+                    Math.min(librarySizeMax, games)))) {
+                libraries.add(new long[] { userId, game });
+                if (random.nextDouble() < scoreDensity) {
+                    long score = Math.round(gameMeans[game - 1] + random.nextGaussian() * (maxScore - minScore) / 6.0);
+                    scores.add(new Score(null, Math.max(minScore, Math.min(maxScore, score)), userId, (long) game));
+                }
+            }
+        }
+        inBatches(userRows, syntheticDataRepository::insertUsers);
+        inBatches(libraries, syntheticDataRepository::insertLibraries);
+        inBatches(scores, syntheticDataRepository::insertScores);
+        userCount.addAndGet(userRows.size());
+        libraryCount.addAndGet(libraries.size());
+        scoreCount.addAndGet(scores.size());
+    }
+
+    // Games from (inclusive) and to (exclusive) are indexes, game ids start at 1
+    private void generateCommentaries(int from, int to, long firstId, long[] counts, long firstUserId) {
+        Producer producer = this.producer.get();
+        Random random = producer.random;
+        random.setSeed(chunkSeed(COMMENTARIES, from));
+
+        List<CommentaryRow> commentaries = new ArrayList<>();
+        long id = firstId;
+        for (int game = from; game < to; game++) {
+            int gameStart = commentaries.size();
+            for (long count = 0; count < counts[game]; count++, id++) {
+                CommentaryRow parent = null;
+                if (commentaries.size() > gameStart && random.nextDouble() < replyRatio) {
+                    parent = commentaries.get(gameStart + random.nextInt(commentaries.size() - gameStart));
+                    if (parent.depth() + 1 >= Commentary.MAX_DEPTH) {
+                        parent = null;
+                    }
+                }
+                long userId = firstUserId + (long) (random.nextDouble() * users);
+                String content = producer.faker.lorem().sentence(3 + random.nextInt(20));
+                String path = Commentary.pathSegment(id);
+                commentaries.add(parent == null
+                        ? new CommentaryRow(id, content, userId, game + 1, null, id, path, 0)
+                        : new CommentaryRow(id, content, userId, game + 1, parent.id(), parent.rootId(),
+                                parent.path() + path, parent.depth() + 1));
+            }
+        }
+        inBatches(commentaries, syntheticDataRepository::insertCommentaries);
+        commentaryCount.addAndGet(commentaries.size());
+    }
+
+    // Mean score of each game, somewhere in the upper two thirds of the range
+    private double[] gameMeans(Random random) {
+        double[] means = new double[games];
+        for (int game = 0; game < games; game++) {
+            means[game] = minScore + (maxScore - minScore) * (0.3 + 0.6 * random.nextDouble());
+        }
+        return means;
+    }
+
+    private long chunkSeed(long phase, long chunk) {
+        return seed ^ (phase << 56) ^ (chunk * 0x9E3779B97F4A7C15L);
+    }
+
+    private <T> void inBatches(List<T> rows, Consumer<List<T>> insert) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            insert.accept(rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private static void await(List<Future<?>> tasks) throws InterruptedException {
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Synthetic data generation failed", e.getCause());
+            }
+        }
+    }
+
+    private static String ascii(String name) {
+        return Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("[^A-Za-z]", "");
+    }
+
+    /**
+     * Cumulative Zipf weights of the games, the last one is 1: game i (from 1)
+     * weighs 1 / i^skew.
+     */
+    static double[] cumulativeWeights(int games, double skew) {
+        double[] cumulative = new double[games];
+        double total = 0;
+        for (int game = 0; game < games; game++) {
+            total += 1 / Math.pow(game + 1, skew);
+            cumulative[game] = total;
+        }
+        for (int game = 0; game < games; game++) {
+            cumulative[game] /= total;
+        }
+        return cumulative;
+    }
+
+    // Id of a game drawn by popularity
+    static int sampleGame(double[] cumulative, Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, index < 0 ? -index - 1 : index) + 1;
+    }
+
+    // Log-normal of the given mean, sigma 0 gives the mean to everybody
+    static int librarySize(Random random, double mean, double sigma, int max) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double mu = Math.log(mean) - sigma * sigma / 2;
+        return (int) Math.min(max, Math.round(Math.exp(mu + sigma * random.nextGaussian())));
+    }
+
+    /**
+     * Distinct game ids drawn by popularity. Past a few misses in a row on
+     * games already drawn, the least popular missing games fill the library.
+     */
+    static Set<Integer> library(Random random, double[] cumulative, int size) {
+        Set<Integer> library = new HashSet<>();
+        int misses = 0;
+        while (library.size() < size && misses < 8) {
+            misses = library.add(sampleGame(cumulative, random)) ? 0 : misses + 1;
+        }
+        for (int game = cumulative.length; library.size() < size; game--) {
+            library.add(game);
+        }
+        return library;
+    }
+
+    // Commentaries of each game, the mean per game spread by popularity
+    static long[] commentaryCounts(double[] cumulative, double meanPerGame) {
+        long[] counts = new long[cumulative.length];
+        double previous = 0;
+        for (int game = 0; game < cumulative.length; game++) {
+            counts[game] = Math.round((cumulative[game] - previous) * meanPerGame * cumulative.length);
+            previous = cumulative[game];
+        }
+        return counts;
+    }
+}
@@ -2,12 +2,16 @@ package com.example.demo.service;
 
 import java.util.*;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.config.JwtService;
+import com.example.demo.config.TwoTierCache;
 import com.example.demo.entity.Game;
 import com.example.demo.entity.User;
+import com.example.demo.entity.dto.AuthorCardDTO;
 import com.example.demo.entity.dto.GameDTO;
 import com.example.demo.repository.GameRepository;
 import com.example.demo.repository.UserRepository;
@@ -29,6 +33,12 @@ public class UserService {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private TwoTierCache<String, User> usersBySlugCache = TwoTierCache.disabled("users-by-slug");
+
+    @Autowired
+    private TwoTierCache<Long, AuthorCardDTO> authorCardsCache = TwoTierCache.disabled("author-cards");
+
     private Game game = new Game();
 
     public List<User> getAll() {
@@ -41,9 +51,16 @@ public class UserService {
         return user;
     }
 
+    @Transactional(readOnly = true)
     public User getOneBySlug(String slug) {
-        User user = this.userRepository.findBySlug(slug);
-        return user;
+        return this.usersBySlugCache.get(slug, key -> {
+            User user = this.userRepository.findBySlug(key);
+            // A cached user is serialized outside of its session, its library must be loaded
+            if (user != null) {
+                Hibernate.initialize(user.getGames());
+            }
+            return user;
+        });
     }
 
     public User createUser(User user) {
@@ -57,6 +74,7 @@ public class UserService {
 
     public User updateUser(Long id, User user) {
         User retrievedUser = this.userRepository.findById(id).get();
+        String previousSlug = retrievedUser.getSlug();
         retrievedUser.setUsername(user.getUsername());
         retrievedUser.setSlug(slugify.slugify(user.getUsername()));
         retrievedUser.setEmail(user.getEmail());
@@ -65,23 +83,41 @@ public class UserService {
             retrievedUser.setPassword(user.getPassword());
         }
         
-        return this.userRepository.save(retrievedUser);
+        User savedUser = this.userRepository.save(retrievedUser);
+        invalidateCaches(savedUser, previousSlug);
+        return savedUser;
     }
 
     public User updateBanner(Long id, User user) {
         User retrievedUser = this.userRepository.findById(id).get();
         retrievedUser.setBannerPicture(user.getBannerPicture());
-        return this.userRepository.save(retrievedUser);
+        User savedUser = this.userRepository.save(retrievedUser);
+        invalidateCaches(savedUser, savedUser.getSlug());
+        return savedUser;
     }
 
     public User updateProfilePicture(Long id, User user) {
         User retrievedUser = this.userRepository.findById(id).get();
         retrievedUser.setProfilePicture(user.getProfilePicture());
-        return this.userRepository.save(retrievedUser);
+        User savedUser = this.userRepository.save(retrievedUser);
+        invalidateCaches(savedUser, savedUser.getSlug());
+        return savedUser;
     }
 
     public void deleteUser(Long id) {
+        // The slug is only needed to invalidate the cache
+        Optional<User> user = this.usersBySlugCache.isEnabled() ? this.userRepository.findById(id) : Optional.empty();
         this.userRepository.deleteById(id);
+        user.ifPresent(deletedUser -> invalidateCaches(deletedUser, deletedUser.getSlug()));
+    }
+
+    // After the write, the other nodes then reload the new state
+    private void invalidateCaches(User user, String previousSlug) {
+        this.usersBySlugCache.invalidate(previousSlug);
+        if (!Objects.equals(previousSlug, user.getSlug())) {
+            this.usersBySlugCache.invalidate(user.getSlug());
+        }
+        this.authorCardsCache.invalidate(user.getId());
     }
 
     public Long findUserIdByUsername(String username) {
@@ -121,6 +157,7 @@ public class UserService {
                 games.add(game);
                 user.get().setGames(games);
                 userRepository.save(user.get());
+                usersBySlugCache.invalidate(user.get().getSlug());
             } else {
                 throw new IllegalArgumentException("Game is already registered in the user list");
             }
@@ -163,6 +200,7 @@ public class UserService {
                 if (userOptional.get().getGames().contains(game)) {
                     user.getGames().remove(game);
                     userRepository.save(user);
+                    usersBySlugCache.invalidate(user.getSlug());
                 }
                 return user.getGames().stream()
                         .map(this::convertToDTO)
@@ -181,6 +219,17 @@ public class UserService {
         return userId;
     }
 
+    // From the token alone: no query, so no pooled connection is taken
+    public Long getIdClaimInToken(String token) {
+        return jwtService.extractUserId(token);
+    }
+
+    public boolean isAdminInToken(String token) {
+        String username = jwtService.extractUsername(token);
+        User user = userRepository.findByUsername(username);
+        return user != null && user.isRole();
+    }
+
     public String getSlugInToken(String token) {
         String username = jwtService.extractUsername(token);
         String userSlug = this.findUserSlugByUsername(username);
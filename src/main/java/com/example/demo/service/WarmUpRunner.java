@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.JwtService;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Replays a synthetic workload against the application's own HTTP port once
+ * everything else has started, so that the JIT has compiled the Tomcat,
+ * Jackson, Hibernate and JJWT paths before the first real request.
+ *
+ * Command-line runners complete before Spring Boot reports the application
+ * ready, so /readyz (/actuator/health/readiness) stays OUT_OF_SERVICE, and a
+ * load balancer keeps traffic away, until the warm-up is over. It stops after
+ * app.warm-up.iterations rounds of its scenarios or app.warm-up.max-duration,
+ * whichever comes first:
+ * - token: GET /games?user_id= with a token of the user (JWT verification, library)
+ * - slug: GET /users/{slug}
+ * - list: GET /commentaries (page of commentaries)
+ *
+ * The mean latency of each scenario over the first and the last tenth of the
+ * rounds is published as app.warmup.latency, with round=first|last.
+ */
+@Component
+@Order(4)
+public class WarmUpRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private record Scenario(String name, IntFunction<HttpRequest> request) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.warm-up.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.warm-up.iterations:2000}")
+    private int iterations = 2000;
+
+    @Value("${app.warm-up.max-duration:PT30S}")
+    private Duration maxDuration = Duration.ofSeconds(30);
+
+    @Value("${app.warm-up.threads:4}")
+    private int threads = 4;
+
+    @Value("${app.warm-up.scenarios:token,slug,list}")
+    private List<String> scenarios = List.of("token", "slug", "list");
+
+    // Users whose slug and token the requests go through
+    @Value("${app.warm-up.users:50}")
+    private int users = 50;
+
+    private volatile boolean warmedUp;
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            log.info("No HTTP port, skipping the warm-up");
+            return;
+        }
+        List<Scenario> workload = workload("http://localhost:" + port,
+                userRepository.findAll(PageRequest.of(0, users)).getContent());
+        if (workload.isEmpty()) {
+            log.info("Nothing to warm up");
+            return;
+        }
+
+        HttpClient client = HttpClient.newHttpClient();
+        long[][] latencies = new long[workload.size()][iterations];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        Callable<Void> worker = () -> {
+            int iteration;
+            while (System.nanoTime() < deadline && (iteration = next.getAndIncrement()) < iterations) {
+                for (int scenario = 0; scenario < workload.size(); scenario++) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(workload.get(scenario).request().apply(iteration),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[scenario][iteration] = System.nanoTime() - sent;
+                }
+                completed.incrementAndGet();
+            }
+            return null;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                workers.add(worker);
+            }
+            executor.invokeAll(workers);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Rounds are handed out in order, so the first ones ran first
+        int rounds = completed.get();
+        int tenth = Math.max(1, rounds / 10);
+        List<String> summary = new ArrayList<>();
+        for (int scenario = 0; scenario < workload.size() && rounds > 0; scenario++) {
+            double first = mean(latencies[scenario], 0, tenth);
+            double last = mean(latencies[scenario], rounds - tenth, rounds);
+            String name = workload.get(scenario).name();
+            TimeGauge.builder("app.warmup.latency", () -> first, TimeUnit.NANOSECONDS)
+                    .description("Mean latency of a warm-up scenario over its first or last tenth of rounds")
+                    .tags("scenario", name, "round", "first")
+                    .register(meterRegistry);
+            TimeGauge.builder("app.warmup.latency", () -> last, TimeUnit.NANOSECONDS)
+                    .description("Mean latency of a warm-up scenario over its first or last tenth of rounds")
+                    .tags("scenario", name, "round", "last")
+                    .register(meterRegistry);
+            summary.add(String.format(Locale.ROOT, "%s %.2f ms -> %.2f ms", name, first / 1e6, last / 1e6));
+        }
+        Gauge.builder("app.warmup.rounds", () -> rounds)
+                .description("Rounds of the warm-up scenarios run before the application reported ready")
+                .register(meterRegistry);
+        warmedUp = true;
+        log.info("Warm-up done: {} rounds in {} ms, {} failed requests, {}", rounds,
+                (System.nanoTime() - start) / 1_000_000, errors.get(), String.join(", ", summary));
+    }
+
+    private List<Scenario> workload(String baseUrl, List<User> sample) {
+        List<Scenario> workload = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        if (scenarios.contains("token") && !sample.isEmpty()) {
+            try {
+                sample.forEach(user -> tokens.add(jwtService.generateToken(user.getId(), user.getUsername(), user.getSlug())));
+                workload.add(new Scenario("token", iteration -> HttpRequest
+                        .newBuilder(URI.create(baseUrl + "/games?user_id=" + sample.get(iteration % sample.size()).getId()))
+                        .header("Authorization", tokens.get(iteration % sample.size()))
+                        .build()));
+            } catch (RuntimeException e) {
+                log.warn("Cannot sign warm-up tokens, skipping the token scenario: {}", e.getMessage());
+            }
+        }
+        if (scenarios.contains("slug") && !sample.isEmpty()) {
+            workload.add(new Scenario("slug", iteration -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/users/" + sample.get(iteration % sample.size()).getSlug()))
+                    .build()));
+        }
+        if (scenarios.contains("list")) {
+            workload.add(new Scenario("list", iteration -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/commentaries?size=50"))
+                    .build()));
+        }
+        return workload;
+    }
+
+    private static double mean(long[] values, int from, int to) {
+        long sum = 0;
+        for (int index = from; index < to; index++) {
+            sum += values[index];
+        }
+        return (double) sum / (to - from);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW = Duration.ofSeconds(1).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("default", 20, 4, 200, 1.5,
+            Duration.ofSeconds(1), 10, meterRegistry);
+
+    private long now = System.nanoTime();
+
+    // Ten requests of the given latency, with that many in flight, then the window ends
+    private void window(long rttMillis, int inFlight) {
+        for (int sample = 0; sample < 10; sample++) {
+            limiter.onSample(now, rttMillis * 1_000_000, inFlight, false);
+        }
+        now += WINDOW;
+        limiter.onSample(now, rttMillis * 1_000_000, inFlight, false);
+    }
+
+    @Test
+    void onSample_ShouldRaiseLimit_WhileLatencyHoldsUnderLoad() {
+        // When
+        for (int round = 0; round < 10; round++) {
+            window(10, limiter.getLimit());
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void onSample_ShouldKeepLimit_WhenLessThanHalfIsUsed() {
+        // When
+        for (int round = 0; round < 10; round++) {
+            window(10, 3);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void onSample_ShouldLowerLimit_WhenLatencyRises() {
+        // Given
+        for (int round = 0; round < 5; round++) {
+            window(10, limiter.getLimit());
+        }
+        int before = limiter.getLimit();
+
+        // When
+        for (int round = 0; round < 10; round++) {
+            window(80, limiter.getLimit());
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isLessThan(before);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void onSample_ShouldBackOff_WhenWindowHasServerErrors() {
+        // When
+        limiter.onSample(now, 30_000_000_000L, 20, true);
+        now += WINDOW;
+        limiter.onSample(now, 10_000_000, 20, false);
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    void tryAcquire_ShouldRejectBeyondLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter auth = new AdaptiveConcurrencyLimiter("auth", 2, 1, 16, 1.5, Duration.ofSeconds(1),
+                10, meterRegistry);
+
+        // When
+        boolean first = auth.tryAcquire();
+        boolean second = auth.tryAcquire();
+        boolean third = auth.tryAcquire();
+        auth.release();
+        boolean afterRelease = auth.tryAcquire();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(afterRelease).isTrue();
+        assertThat(meterRegistry.get("app.concurrency.requests").tags("limiter", "auth", "outcome", "rejected")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("app.concurrency.in.flight").tag("limiter", "auth").gauge().value())
+                .isEqualTo(2);
+    }
+}
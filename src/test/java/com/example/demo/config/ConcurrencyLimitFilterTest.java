@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdaptiveConcurrencyLimiter defaultLimiter = new AdaptiveConcurrencyLimiter("default", 4, 1, 10, 1.5,
+            Duration.ofSeconds(1), 10, meterRegistry);
+
+    private final AdaptiveConcurrencyLimiter authLimiter = new AdaptiveConcurrencyLimiter("auth", 1, 1, 10, 1.5,
+            Duration.ofSeconds(1), 10, meterRegistry);
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(defaultLimiter,
+            Map.of("/users/login", authLimiter), List.of("/actuator/**"), Duration.ofSeconds(2));
+
+    private MockHttpServletResponse send(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void doFilter_ShouldShedRequests_WhenRouteLimiterIsFull() throws Exception {
+        // Given
+        authLimiter.tryAcquire();
+
+        // When
+        MockHttpServletResponse login = send("POST", "/users/login");
+        MockHttpServletResponse profile = send("GET", "/users/ergy");
+
+        // Then
+        assertThat(login.getStatus()).isEqualTo(503);
+        assertThat(login.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(profile.getStatus()).isEqualTo(200);
+        assertThat(defaultLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void doFilter_ShouldNotLimitExcludedPaths() throws Exception {
+        // Given
+        for (int request = 0; request < 4; request++) {
+            defaultLimiter.tryAcquire();
+        }
+
+        // When
+        MockHttpServletResponse probe = send("GET", "/actuator/health/readiness");
+        MockHttpServletResponse profile = send("GET", "/users/ergy");
+
+        // Then
+        assertThat(probe.getStatus()).isEqualTo(200);
+        assertThat(profile.getStatus()).isEqualTo(503);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class FirstTrafficFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ApplicationAvailability availability = mock(ApplicationAvailability.class);
+
+    private final AtomicReference<ReadinessState> readiness = new AtomicReference<>(ReadinessState.REFUSING_TRAFFIC);
+
+    private final FirstTrafficFilter filter = new FirstTrafficFilter(availability, meterRegistry, () -> true, 2);
+
+    private void get(String uri) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Test
+    void doFilter_ShouldTimeFirstRequestsOnceReady() throws Exception {
+        // Given
+        when(availability.getReadinessState()).thenAnswer(invocation -> readiness.get());
+
+        // When
+        get("/users/ergy");
+        readiness.set(ReadinessState.ACCEPTING_TRAFFIC);
+        get("/actuator/health/readiness");
+        get("/users/ergy");
+        get("/users/marwa");
+        get("/users/filip");
+
+        // Then
+        assertThat(meterRegistry.get("app.first.traffic").tag("warmed", "true").timer().count()).isEqualTo(2);
+    }
+}
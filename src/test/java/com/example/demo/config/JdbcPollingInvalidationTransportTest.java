@@ -0,0 +1,88 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.demo.entity.CacheInvalidation;
+import com.example.demo.repository.CacheInvalidationRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcPollingInvalidationTransportTest {
+
+    @Mock
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    private static CacheInvalidation row(long id, String key) {
+        CacheInvalidation invalidation = new CacheInvalidation("users", key, Instant.now());
+        invalidation.setId(id);
+        return invalidation;
+    }
+
+    @Test
+    void poll_ShouldDeliverNewRows_AndAskAgainForSkippedIds() {
+        // Given
+        when(cacheInvalidationRepository.findMaxId()).thenReturn(10L);
+        JdbcPollingInvalidationTransport transport = new JdbcPollingInvalidationTransport(cacheInvalidationRepository, true,
+                Duration.ofSeconds(10), Duration.ofMinutes(10));
+        List<String> received = new ArrayList<>();
+        transport.subscribe((cacheName, key, version) -> received.add(cacheName + ":" + key + "@" + version));
+        transport.start();
+        when(cacheInvalidationRepository.findAfter(eq(10L), any())).thenReturn(List.of(row(11, "ergy"), row(13, "marwa")));
+        when(cacheInvalidationRepository.findAfter(13L, Set.of(12L))).thenReturn(List.of(row(12, "filip")));
+
+        // When
+        transport.poll();
+        transport.poll();
+
+        // Then
+        assertThat(received).containsExactly("users:ergy@11", "users:marwa@13", "users:filip@12");
+        verify(cacheInvalidationRepository).findAfter(13L, Set.of(12L));
+    }
+
+    @Test
+    void publish_ShouldReturnIdOfInsertedRow() {
+        // Given
+        JdbcPollingInvalidationTransport transport = new JdbcPollingInvalidationTransport(cacheInvalidationRepository, true,
+                Duration.ofSeconds(10), Duration.ofMinutes(10));
+        when(cacheInvalidationRepository.save(any(CacheInvalidation.class))).thenAnswer(invocation -> {
+            CacheInvalidation invalidation = invocation.getArgument(0);
+            invalidation.setId(42L);
+            return invalidation;
+        });
+
+        // When
+        long version = transport.publish("users", "ergy");
+
+        // Then
+        assertThat(version).isEqualTo(42L);
+        verify(cacheInvalidationRepository, never()).findAfter(anyLong(), any());
+    }
+
+    @Test
+    void poll_ShouldStayIdle_WhenCachingIsOffAtRuntime() {
+        // Given
+        JdbcPollingInvalidationTransport transport = new JdbcPollingInvalidationTransport(cacheInvalidationRepository, false,
+                Duration.ofSeconds(10), Duration.ofMinutes(10));
+
+        // When
+        transport.start();
+        transport.poll();
+        transport.prune();
+
+        // Then
+        verifyNoInteractions(cacheInvalidationRepository);
+    }
+}
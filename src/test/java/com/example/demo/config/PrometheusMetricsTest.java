@@ -0,0 +1,91 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// The metrics settings of the main application.properties, which the test one shadows
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,info,prometheus",
+        "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true",
+        "management.metrics.distribution.percentiles-histogram.app.jwt=true",
+        "management.metrics.distribution.percentiles-histogram.app.password=true" })
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PrometheusMetricsTest {
+
+    private static final String PASSWORD = "5Sa!Api85";
+    private static final Pattern LABELS = Pattern.compile("(\\w+)=\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    // Label names of the lines of a series
+    private Set<String> labels(String scrape, String series) {
+        Set<String> names = new TreeSet<>();
+        for (String line : scrape.lines().filter(line -> line.startsWith(series + "{")).toList()) {
+            Matcher matcher = LABELS.matcher(line);
+            while (matcher.find()) {
+                names.add(matcher.group(1));
+            }
+        }
+        return names;
+    }
+
+    @Test
+    void prometheus_ShouldExposeCryptoAndPoolHistograms_WithFixedTagsOnly() throws Exception {
+        // Given: a registration, a login and an authenticated request
+        String user = mockMvc.perform(post("/users/register").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("username", "scraped", "email", "scraped@example.com",
+                        "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String login = mockMvc.perform(post("/users/login").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("email", "scraped@example.com", "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(login).get("token").asText();
+        mockMvc.perform(get("/games").param("user_id", objectMapper.readTree(user).get("id").asText())
+                .header("Authorization", token))
+                .andExpect(status().isOk());
+
+        // When
+        String scrape = scrape();
+
+        // Then
+        for (String series : List.of("app_jwt_seconds_bucket", "app_password_seconds_bucket")) {
+            assertThat(scrape).contains(series + "{");
+            assertThat(labels(scrape, series)).isSubsetOf("application", "operation", "outcome", "le")
+                    .contains("operation", "outcome");
+        }
+        assertThat(scrape).contains("app_jwt_seconds_count{", "operation=\"sign\"", "operation=\"verify\"");
+        assertThat(scrape).contains("hikaricp_connections_acquire_seconds_bucket{");
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryStatisticsFilterTest {
+
+    private final QueryStatisticsFilter filter = new QueryStatisticsFilter(10, List.of("/notes/export", "/admin/jfr/**"));
+
+    private final List<ServletResponse> seen = new ArrayList<>();
+
+    // Writes a body and flushes it, as a streamed download does
+    private final FilterChain streaming = (request, response) -> {
+        seen.add(response);
+        response.getWriter().write("[]");
+        response.flushBuffer();
+    };
+
+    @Test
+    void doFilter_ShouldBufferBodyAndSetHeaders() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/notes"), response, streaming);
+
+        // Then
+        assertThat(seen.get(0)).isInstanceOf(ContentCachingResponseWrapper.class);
+        assertThat(response.getHeader(QueryStatisticsFilter.COUNT_HEADER)).isEqualTo("0");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+
+    @Test
+    void doFilter_ShouldNotBufferStreamedPaths() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/admin/jfr/recordings/1/file"), response, streaming);
+
+        // Then
+        assertThat(seen.get(0)).isSameAs(response);
+        assertThat(response.getHeader(QueryStatisticsFilter.COUNT_HEADER)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(0);
+
+    @Test
+    void doFilter_ShouldSendPhasesInServerTimingHeader() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/games");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            ServerTiming.recordAuth(2_000_000);
+            ServerTiming.recordDb(3_000_000);
+            ServerTiming.serializationStarted();
+            res.getOutputStream().write("[]".getBytes());
+            res.getOutputStream().flush();
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .startsWith("auth;dur=2.00, db;dur=3.00;desc=\"statements: 1\", service;dur=")
+                .contains("serialization;dur=", "total;dur=");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+
+    @Test
+    void doFilter_ShouldAddHeaderBeforeResponseIsCommitted() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/notes/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.flushBuffer();
+            ServerTiming.recordAuth(5_000_000);
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).startsWith("auth;dur=0.00,");
+    }
+
+    @Test
+    void record_ShouldDoNothing_WhenNoRequestIsTimed() {
+        // When
+        ServerTiming.recordAuth(1_000_000);
+        ServerTiming.recordDb(1_000_000);
+
+        // Then
+        assertThat(ServerTiming.current()).isNull();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Starts callers of the key until all but the first wait for its computation, then releases it
+    private <V> List<Future<V>> concurrentCalls(SingleFlight<String, V> flight, int callers, CountDownLatch release,
+            Function<String, V> loader) throws Exception {
+        List<Future<V>> calls = new ArrayList<>();
+        calls.add(executor.submit(() -> flight.run("ergy", loader)));
+        while (flight.inFlight() == 0) {
+            Thread.onSpinWait();
+        }
+        for (int caller = 1; caller < callers; caller++) {
+            calls.add(executor.submit(() -> flight.run("ergy", loader)));
+        }
+        while (meterRegistry.counter("app.single.flight.requests", "flight", "users", "role", "coalesced")
+                .count() < callers - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        return calls;
+    }
+
+    @Test
+    void run_ShouldComputeOnce_ForConcurrentCallersOfAKey() throws Exception {
+        // Given
+        SingleFlight<String, String> flight = new SingleFlight<>("users", meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        List<Future<String>> calls = concurrentCalls(flight, 8, release, key -> {
+            loads.incrementAndGet();
+            await(release);
+            return key + "-profile";
+        });
+
+        // Then
+        for (Future<String> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("ergy-profile");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.counter("app.single.flight.requests", "flight", "users", "role", "led").count())
+                .isEqualTo(1);
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    @Test
+    void run_ShouldShareTheException_AndComputeAgainAfterwards() throws Exception {
+        // Given
+        SingleFlight<String, String> flight = new SingleFlight<>("users", meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        List<Future<String>> calls = concurrentCalls(flight, 3, release, key -> {
+            await(release);
+            throw new IllegalArgumentException("Utilisateur introuvable");
+        });
+
+        // Then
+        for (Future<String> call : calls) {
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(flight.run("ergy", key -> "again")).isEqualTo("again");
+    }
+
+    @Test
+    void run_ShouldCallLoaderEveryTime_WhenDisabled() {
+        // Given
+        SingleFlight<String, Integer> flight = SingleFlight.disabled();
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        flight.run("ergy", key -> loads.incrementAndGet());
+        flight.run("ergy", key -> loads.incrementAndGet());
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(flight.isEnabled()).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
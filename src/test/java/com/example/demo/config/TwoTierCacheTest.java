@@ -0,0 +1,119 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    // Shared by the caches of several nodes, delivers when asked to
+    private static final class InMemoryTransport implements CacheInvalidationTransport {
+
+        private final List<Listener> listeners = new ArrayList<>();
+        private final List<Object[]> published = new ArrayList<>();
+
+        @Override
+        public long publish(String cacheName, String key) {
+            published.add(new Object[] { cacheName, key, (long) published.size() + 1 });
+            return published.size();
+        }
+
+        @Override
+        public void subscribe(Listener listener) {
+            listeners.add(listener);
+        }
+
+        void deliver(int index) {
+            Object[] invalidation = published.get(index);
+            listeners.forEach(listener -> listener.onInvalidation((String) invalidation[0], (String) invalidation[1],
+                    (long) invalidation[2]));
+        }
+    }
+
+    private final InMemoryTransport transport = new InMemoryTransport();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TwoTierCache<String, String> node(String name) {
+        return new TwoTierCache<>(name, 100, Duration.ofMinutes(10), transport, meterRegistry);
+    }
+
+    @Test
+    void get_ShouldLoadOnce_ThenReadFromMemory() {
+        // Given
+        TwoTierCache<String, String> cache = node("users");
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cache.get("ergy", key -> "v" + loads.incrementAndGet());
+        String value = cache.get("ergy", key -> "v" + loads.incrementAndGet());
+
+        // Then
+        assertThat(value).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("app.cache.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_ShouldReachOtherNodes_AndLateInvalidationsShouldNotEvictNewerValues() {
+        // Given
+        TwoTierCache<String, String> writer = node("users");
+        TwoTierCache<String, String> reader = node("users");
+        TwoTierCache<String, String> otherCache = node("games");
+        reader.get("ergy", key -> "old");
+        otherCache.get("ergy", key -> "game");
+
+        // When
+        writer.invalidate("ergy");
+        writer.invalidate("ergy");
+        transport.deliver(1);
+        String reloaded = reader.get("ergy", key -> "new");
+        transport.deliver(0);
+
+        // Then
+        assertThat(reloaded).isEqualTo("new");
+        assertThat(reader.get("ergy", key -> "newer")).isEqualTo("new");
+        assertThat(otherCache.get("ergy", key -> "other")).isEqualTo("game");
+    }
+
+    @Test
+    void get_ShouldNotKeepValue_InvalidatedWhileLoading() {
+        // Given
+        TwoTierCache<String, String> writer = node("users");
+        TwoTierCache<String, String> reader = node("users");
+
+        // When
+        String loaded = reader.get("ergy", key -> {
+            writer.invalidate("ergy");
+            transport.deliver(0);
+            return "read before the write";
+        });
+
+        // Then
+        assertThat(loaded).isEqualTo("read before the write");
+        assertThat(reader.get("ergy", key -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void disabled_ShouldAlwaysLoad_AndPublishNothing() {
+        // Given
+        TwoTierCache<String, String> cache = TwoTierCache.disabled("users");
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cache.get("ergy", key -> "v" + loads.incrementAndGet());
+        cache.get("ergy", key -> "v" + loads.incrementAndGet());
+        cache.invalidate("ergy");
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(transport.published).isEmpty();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CommentaryControllerTest {
+
+    private static final String PASSWORD = "5Sa!Api85";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long userId;
+    private String slug;
+    private int gameId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "author" + USERS.incrementAndGet();
+        JsonNode user = send(json(post("/users/register"),
+                Map.of("username", username, "email", username + "@example.com", "password", PASSWORD)));
+        userId = user.get("id").asLong();
+        slug = user.get("slug").asText();
+        gameId = 40_000 + (int) userId;
+    }
+
+    @Test
+    void createCommentary_ShouldKeepAuthorOfRequestBody() throws Exception {
+        // When
+        JsonNode created = send(json(post("/commentaries"),
+                Map.of("content", "Premier avis", "gameId", gameId, "user", Map.of("id", userId))));
+
+        // Then
+        JsonNode card = send(get("/commentaries/{id}", created.get("id").asLong()));
+        assertThat(created.has("user")).isFalse();
+        assertThat(card.get("author").get("id").asLong()).isEqualTo(userId);
+        assertThat(card.get("author").get("slug").asText()).isEqualTo(slug);
+    }
+
+    @Test
+    void reply_ShouldKeepAuthorOfRequestBody() throws Exception {
+        // Given
+        JsonNode parent = send(json(post("/commentaries"),
+                Map.of("content", "Premier avis", "gameId", gameId, "user", Map.of("id", userId))));
+
+        // When
+        JsonNode reply = send(json(post("/commentaries/{id}/replies", parent.get("id").asLong()),
+                Map.of("content", "Réponse", "user", Map.of("id", userId))));
+
+        // Then
+        JsonNode thread = send(get("/commentaries/{id}/thread", parent.get("id").asLong()));
+        assertThat(thread).hasSize(2);
+        assertThat(thread.get(1).get("id").asLong()).isEqualTo(reply.get("id").asLong());
+        assertThat(thread.get(1).get("author").get("id").asLong()).isEqualTo(userId);
+        assertThat(thread.get(1).get("author").get("slug").asText()).isEqualTo(slug);
+    }
+
+    @Test
+    void stream_ShouldSendEventsAsTheyCome_WhenClientAcceptsAnyType() throws Exception {
+        // Given: query statistics are on in tests
+        MvcResult stream = mockMvc.perform(get("/commentaries/stream").param("gameId", String.valueOf(gameId))
+                .accept(MediaType.ALL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        send(json(post("/commentaries"), Map.of("content", "En direct", "gameId", gameId, "user", Map.of("id", userId))));
+
+        // Then
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!stream.getResponse().getContentAsString().contains("En direct") && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(stream.getResponse().getContentAsString()).contains("En direct");
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
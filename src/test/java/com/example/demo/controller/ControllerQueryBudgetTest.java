@@ -0,0 +1,173 @@
+package com.example.demo.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.config.QueryStatisticsFilter;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * SQL statement budgets of the endpoints of every controller. The budgets are
+ * what the endpoints run today; lower them when fixing an N+1, never raise
+ * them without a reason.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ControllerQueryBudgetTest {
+
+    private static final String PASSWORD = "5Sa!Api85";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private long userId;
+    private String slug;
+    private String token;
+    private long gameId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "budget" + USERS.incrementAndGet();
+        String email = username + "@example.com";
+        JsonNode user = send(json(post("/users/register"),
+                Map.of("username", username, "email", email, "password", PASSWORD)));
+        userId = user.get("id").asLong();
+        slug = user.get("slug").asText();
+        token = send(json(post("/users/login"), Map.of("email", email, "password", PASSWORD))).get("token").asText();
+        gameId = 30_000 + userId * 10;
+    }
+
+    @Test
+    void userEndpoints() throws Exception {
+        mockMvc.perform(get("/users/{slug}", slug))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(2));
+
+        // One query for the users, then the games of each user one at a time
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(1 + (int) userRepository.count()));
+
+        mockMvc.perform(json(post("/users/login"), Map.of("email", slug + "@example.com", "password", PASSWORD)))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(1));
+
+        mockMvc.perform(json(put("/users/edit/{id}", userId),
+                Map.of("username", slug, "email", slug + "@example.com", "biography", "Joueur de test")))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(3));
+    }
+
+    @Test
+    void gameEndpoints() throws Exception {
+        mockMvc.perform(post("/games/add").param("gameId", String.valueOf(gameId)).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(6));
+
+        mockMvc.perform(get("/games").param("user_id", String.valueOf(userId)).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(2));
+
+        mockMvc.perform(delete("/games").param("gameId", String.valueOf(gameId)).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(4));
+    }
+
+    @Test
+    void commentaryEndpoints() throws Exception {
+        int commentaryGame = (int) gameId;
+        JsonNode commentary = send(json(post("/commentaries"),
+                Map.of("content", "Premier avis", "gameId", commentaryGame, "user", Map.of("id", userId))));
+        // The parent, the reply and its path, then the author card of the published event
+        mockMvc.perform(json(post("/commentaries/{id}/replies", commentary.get("id").asLong()),
+                Map.of("content", "Réponse", "gameId", commentaryGame, "user", Map.of("id", userId))))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(4));
+
+        // The materialized path is only known once the id is generated
+        mockMvc.perform(json(post("/commentaries"), Map.of("content", "Deuxième avis", "gameId", commentaryGame)))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(2));
+
+        // The page, its authors, then the reply counts
+        mockMvc.perform(get("/commentaries/games/{gameId}", commentaryGame))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(3));
+
+        // The commentary, its thread, then the authors
+        mockMvc.perform(get("/commentaries/{id}/thread", commentary.get("id").asLong()))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(3));
+
+        // The page, then its authors in one IN query
+        mockMvc.perform(get("/commentaries").param("gameId", String.valueOf(commentaryGame)))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(2));
+    }
+
+    @Test
+    void scoreEndpoints() throws Exception {
+        JsonNode score = send(json(post("/notes"), Map.of("userId", userId, "gameId", gameId, "score", 80)));
+        long scoreId = score.get("id").asLong();
+
+        mockMvc.perform(get("/notes/{id}", scoreId))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(1));
+
+        mockMvc.perform(json(put("/notes/{id}", scoreId), Map.of("score", 90)))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(3));
+
+        // Rankings and distributions are served from memory
+        mockMvc.perform(get("/notes/games/top"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(0));
+
+        mockMvc.perform(get("/notes/games/{gameId}/standing", gameId).param("score", "50"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(0));
+    }
+
+    @Test
+    void countIsReportedInHeaders() throws Exception {
+        mockMvc.perform(get("/users/{slug}", slug))
+                .andExpect(header().string(QueryStatisticsFilter.COUNT_HEADER, "2"))
+                .andExpect(header().exists(QueryStatisticsFilter.TIME_HEADER));
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
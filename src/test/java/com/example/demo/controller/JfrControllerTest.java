@@ -0,0 +1,96 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JfrControllerTest {
+
+    private static final String PASSWORD = "5Sa!Api85";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Registers a user, asking for the admin role, and returns it
+    private JsonNode register() throws Exception {
+        String username = "jfr" + USERS.incrementAndGet();
+        String response = mockMvc.perform(post("/users/register").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("username", username,
+                        "email", username + "@example.com", "password", PASSWORD, "role", true))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private String logIn(JsonNode user) throws Exception {
+        String response = mockMvc.perform(post("/users/login").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("email", user.get("email").asText(), "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+
+    @Test
+    void getAll_ShouldAnswerUnauthorized_WithoutValidToken() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/admin/jfr/recordings")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/admin/jfr/recordings").header("Authorization", "not.a.token"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/admin/jfr/continuous")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void register_ShouldIgnoreRole_AndAdminRoutesAnswerForbidden() throws Exception {
+        // Given
+        JsonNode user = register();
+        String token = logIn(user);
+
+        // When / Then
+        assertThat(user.get("role").asBoolean()).isFalse();
+        assertThat(userRepository.findById(user.get("id").asLong())).hasValueSatisfying(
+                saved -> assertThat(saved.isRole()).isFalse());
+        mockMvc.perform(get("/admin/jfr/recordings").header("Authorization", token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/admin/jfr/recordings").header("Authorization", token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getAll_ShouldAnswerOk_ForAdmin() throws Exception {
+        // Given
+        JsonNode registered = register();
+        User user = userRepository.findById(registered.get("id").asLong()).orElseThrow();
+        user.setRole(true);
+        userRepository.save(user);
+        String token = logIn(registered);
+
+        // When / Then
+        mockMvc.perform(get("/admin/jfr/recordings").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.controller;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.example.demo.config.QueryStatistics;
+import com.example.demo.config.QueryStatisticsFilter;
+
+/**
+ * MockMvc expectations on the number of SQL statements a request runs, for
+ * example {@code .andExpect(QueryBudget.atMost(2))}. Needs
+ * app.query-stats.enabled, which the test configuration sets. On failure the
+ * statements are listed, which usually shows the N+1 right away.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher atMost(int budget) {
+        return result -> {
+            QueryStatistics statistics = (QueryStatistics) result.getRequest().getAttribute(QueryStatisticsFilter.ATTRIBUTE);
+            if (statistics == null) {
+                throw new AssertionError("No SQL statistics for the request, is app.query-stats.enabled set?");
+            }
+            if (statistics.getCount() > budget) {
+                throw new AssertionError(String.format("%s %s ran %d SQL statements, %d allowed:%n  %s",
+                        result.getRequest().getMethod(), result.getRequest().getRequestURI(), statistics.getCount(),
+                        budget, String.join(System.lineSeparator() + "  ", statistics.getStatements())));
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.repository.ScoreRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ScoreControllerTest {
+
+    private static final AtomicLong USERS = new AtomicLong(700_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    private JsonNode importScores(String body) throws Exception {
+        String response = mockMvc.perform(post("/notes/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    @Test
+    void importScores_ShouldEndWithError_WhenMalformedRowFollowsWrittenChunk() throws Exception {
+        // Given: a full chunk of 500 rows, then a row whose score is not a number
+        long userId = USERS.addAndGet(1_000);
+        StringBuilder body = new StringBuilder("[\n");
+        for (int row = 0; row < 500; row++) {
+            body.append("{\"score\": 10, \"userId\": ").append(userId).append(", \"gameId\": ").append(row).append("},\n");
+        }
+        body.append("{\"score\": \"dix\", \"userId\": ").append(userId).append(", \"gameId\": 500}\n]");
+
+        // When
+        JsonNode outcomes = importScores(body.toString());
+
+        // Then
+        assertThat(outcomes).hasSize(501);
+        assertThat(outcomes.get(499).get("status").asText()).isEqualTo("INSERTED");
+        JsonNode error = outcomes.get(500);
+        assertThat(error.get("line").asInt()).isEqualTo(502);
+        assertThat(error.get("error").asText()).isNotBlank();
+    }
+
+    @Test
+    void importScores_ShouldMatchExistingRowsOnUserAndGamePairs() throws Exception {
+        // Given
+        long first = USERS.incrementAndGet();
+        long second = USERS.incrementAndGet();
+        mockMvc.perform(post("/notes").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("score", 50, "userId", first, "gameId", 1))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/notes").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("score", 50, "userId", second, "gameId", 2))))
+                .andExpect(status().isOk());
+
+        // When: the crossed combinations do not exist yet
+        JsonNode outcomes = importScores("[{\"score\": 50, \"userId\": " + first + ", \"gameId\": 2},"
+                + " {\"score\": 50, \"userId\": " + second + ", \"gameId\": 1},"
+                + " {\"score\": 50, \"userId\": " + first + ", \"gameId\": 1}]");
+
+        // Then
+        assertThat(outcomes).extracting(outcome -> outcome.get("status").asText())
+                .containsExactly("INSERTED", "INSERTED", "UNCHANGED");
+    }
+
+    @Test
+    void createScore_ShouldInsert_WhenIdIsUnknown() throws Exception {
+        // Given
+        long userId = USERS.incrementAndGet();
+
+        // When
+        String response = mockMvc.perform(post("/notes").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("id", 987_654, "score", 50, "userId", userId, "gameId", 1))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        long id = objectMapper.readTree(response).get("id").asLong();
+        assertThat(id).isNotEqualTo(987_654L);
+        assertThat(scoreRepository.findByUserIdAndGameId(userId, 1L)).hasValueSatisfying(
+                score -> assertThat(score.getId()).isEqualTo(id));
+    }
+
+    @Test
+    void createScore_ShouldAnswerOkOrConflict_WhenSameScoreIsPostedConcurrently() throws Exception {
+        // Given
+        long userId = USERS.incrementAndGet();
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("score", 50, "userId", userId, "gameId", 1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        // When
+        try {
+            for (int request = 0; request < 16; request++) {
+                Callable<Integer> post = () -> mockMvc
+                        .perform(post("/notes").contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andReturn().getResponse().getStatus();
+                statuses.add(executor.submit(post));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        for (Future<Integer> status : statuses) {
+            assertThat(status.get()).isIn(200, 409);
+        }
+        assertThat(scoreRepository.findByUserIdAndGameId(userId, 1L)).isPresent();
+    }
+}
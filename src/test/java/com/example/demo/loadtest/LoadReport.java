@@ -0,0 +1,136 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Latencies and errors of a load test run, per scenario and overall. Latency
+ * is measured from the time a request was scheduled to be sent, so a server
+ * that falls behind is charged for the queueing it causes.
+ */
+final class LoadReport {
+
+    static final String OVERALL = "overall";
+
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toNanos(1);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String scenario, long latencyNanos, boolean ok) {
+        long value = Math.min(Math.max(latencyNanos, 1), HIGHEST_LATENCY);
+        for (String name : List.of(scenario, OVERALL)) {
+            latencies.computeIfAbsent(name, key -> new ConcurrentHistogram(HIGHEST_LATENCY, 3)).recordValue(value);
+            if (!ok) {
+                errors.computeIfAbsent(name, key -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    long count(String name) {
+        Histogram histogram = latencies.get(name);
+        return histogram == null ? 0 : histogram.getTotalCount();
+    }
+
+    double errorRate(String name) {
+        long count = count(name);
+        LongAdder failed = errors.get(name);
+        return count == 0 || failed == null ? 0 : (double) failed.sum() / count;
+    }
+
+    double percentileMillis(String name, double percentile) {
+        Histogram histogram = latencies.get(name);
+        return histogram == null ? 0 : histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf("%-22s %8s %8s %8s %9s %9s %9s %9s %9s%n", "scenario", "requests", "req/s", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (String name : names()) {
+            out.printf("%-22s %8d %8.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, count(name),
+                    count(name) / seconds, errorRate(name) * 100, percentileMillis(name, 50),
+                    percentileMillis(name, 90), percentileMillis(name, 99), percentileMillis(name, 99.9),
+                    latencies.get(name).getMaxValue() / NANOS_PER_MILLI);
+        }
+    }
+
+    // report.json with the summary and one HdrHistogram percentile file (.hgrm, milliseconds) per scenario
+    void write(Path directory, ObjectMapper objectMapper, Map<String, Object> settings) throws IOException {
+        Files.createDirectories(directory);
+        ObjectNode report = objectMapper.createObjectNode();
+        report.set("settings", objectMapper.valueToTree(settings));
+        report.set("scenarios", summary(objectMapper));
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve("report.json").toFile(), report);
+        for (String name : names()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+                latencies.get(name).outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    ObjectNode summary(ObjectMapper objectMapper) {
+        ObjectNode scenarios = objectMapper.createObjectNode();
+        for (String name : names()) {
+            ObjectNode scenario = scenarios.putObject(name);
+            scenario.put("requests", count(name));
+            scenario.put("errorRate", errorRate(name));
+            scenario.put("p50Ms", percentileMillis(name, 50));
+            scenario.put("p99Ms", percentileMillis(name, 99));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Regressions against a baseline summary: a p99 above the baseline one by
+     * more than {@code tolerance} (relative) plus {@code slackMillis}, or an
+     * error rate more than {@code errorSlack} above the baseline one.
+     * Scenarios missing from either side are not compared.
+     */
+    List<String> regressions(JsonNode baseline, double tolerance, double slackMillis, double errorSlack) {
+        List<String> regressions = new ArrayList<>();
+        for (String name : names()) {
+            JsonNode reference = baseline.get(name);
+            if (reference == null) {
+                continue;
+            }
+            double p99 = percentileMillis(name, 99);
+            double allowedP99 = reference.get("p99Ms").asDouble() * (1 + tolerance) + slackMillis;
+            if (p99 > allowedP99) {
+                regressions.add(String.format("%s: p99 %.2f ms > %.2f ms allowed (baseline %.2f ms)", name, p99,
+                        allowedP99, reference.get("p99Ms").asDouble()));
+            }
+            double errorRate = errorRate(name);
+            double allowedErrorRate = reference.get("errorRate").asDouble() + errorSlack;
+            if (errorRate > allowedErrorRate) {
+                regressions.add(String.format("%s: error rate %.2f%% > %.2f%% allowed", name, errorRate * 100,
+                        allowedErrorRate * 100));
+            }
+        }
+        return regressions;
+    }
+
+    // Overall first, then scenarios by name
+    private List<String> names() {
+        List<String> names = new ArrayList<>(latencies.keySet().stream().filter(name -> !name.equals(OVERALL)).sorted().toList());
+        if (latencies.containsKey(OVERALL)) {
+            names.add(0, OVERALL);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.TemplateProjectForWildCodeSchoolApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Load test of the HTTP API. Boots the application on H2 (or targets
+ * {@code -Dloadtest.url}), registers and logs in test users, seeds some games,
+ * scores and commentaries, then sends a weighted mix of requests at a fixed
+ * arrival rate whatever the response times (open model). Latencies go to HDR
+ * histograms, reported per scenario in target/loadtest.
+ *
+ * The booted application runs without caches, single flight, concurrency
+ * limits and warm-up, as when the baseline was recorded; start a target given
+ * with {@code -Dloadtest.url} with CACHE=false, SINGLE_FLIGHT=false,
+ * CONCURRENCY_LIMIT=false and WARM_UP=false to compare with it.
+ *
+ * The run fails when the p99 or the error rate of a scenario regresses beyond
+ * the stored baseline; {@code -Dloadtest.update-baseline=true} replaces the
+ * baseline with the results of the run instead. Run with:
+ *   mvn -P loadtest verify -Dloadtest.rate=200 -Dloadtest.duration=PT2M
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "5Sa!Api85";
+    private static final int GAME_COUNT = 20;
+    private static final long FIRST_GAME_ID = 26_660;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] APPLICATION_ARGS = { "--server.port=0", "--app.query-stats.enabled=false",
+            "--app.cache.enabled=false", "--app.single-flight.users-by-slug.enabled=false",
+            "--app.single-flight.commentary-cards.enabled=false", "--app.single-flight.game-lists.enabled=false",
+            "--app.concurrency-limit.enabled=false", "--app.warm-up.enabled=false" };
+
+    // A logged-in test user
+    record Session(long id, String slug, String token) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong nextLibraryGame = new AtomicLong(100_000);
+
+    private final int rate = Integer.getInteger("loadtest.rate", 100);
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    private final int userCount = Integer.getInteger("loadtest.users", 20);
+    private final Path baselineFile = Path.of(System.getProperty("loadtest.baseline", "src/test/resources/loadtest/baseline.json"));
+    private final Path reportDirectory = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+    private final boolean updateBaseline = Boolean.getBoolean("loadtest.update-baseline");
+    private final double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.5"));
+    private final double slackMillis = Double.parseDouble(System.getProperty("loadtest.slack-ms", "5"));
+    private final double errorSlack = Double.parseDouble(System.getProperty("loadtest.error-slack", "0.01"));
+
+    private HttpClient client;
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("loadtest.url", "");
+        ConfigurableApplicationContext context = null;
+        if (url.isBlank()) {
+            context = new SpringApplication(TemplateProjectForWildCodeSchoolApplication.class).run(APPLICATION_ARGS);
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new LoadTest().run(url);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void run(String url) throws IOException, InterruptedException {
+        baseUrl = url;
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        List<Session> sessions = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            sessions.add(registerAndLogIn(i));
+        }
+        seed(sessions);
+
+        System.out.printf("Load test on %s: %d req/s for %s after %s of warm-up, %d users%n", baseUrl, rate,
+                duration, warmup, userCount);
+        LoadReport report = drive(scenarios(), sessions);
+
+        report.print(System.out, duration.toMillis() / 1000.0);
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", rate);
+        settings.put("duration", duration.toString());
+        settings.put("warmup", warmup.toString());
+        settings.put("users", userCount);
+        report.write(reportDirectory, objectMapper, settings);
+        System.out.println("Report written to " + reportDirectory.toAbsolutePath());
+
+        if (updateBaseline) {
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            ObjectNode baseline = objectMapper.createObjectNode();
+            baseline.set("settings", objectMapper.valueToTree(settings));
+            baseline.set("scenarios", report.summary(objectMapper));
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(baselineFile.toFile(), baseline);
+            System.out.println("Baseline updated: " + baselineFile);
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + ", nothing to compare with");
+            return;
+        }
+        JsonNode baseline = objectMapper.readTree(baselineFile.toFile());
+        if (baseline.path("settings").path("rate").asInt() != rate) {
+            System.out.printf("Warning: the baseline was recorded at %d req/s%n", baseline.path("settings").path("rate").asInt());
+        }
+        List<String> regressions = report.regressions(baseline.path("scenarios"), tolerance, slackMillis, errorSlack);
+        if (!regressions.isEmpty()) {
+            regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+            throw new IllegalStateException(regressions.size() + " regression(s) against " + baselineFile);
+        }
+        System.out.println("No regression against " + baselineFile);
+    }
+
+    private List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("users.list", 5, session -> get("/users")),
+                new Scenario("users.profile", 10, session -> get("/users/" + session.slug())),
+                new Scenario("games.library", 10, session -> authorized("/games?user_id=" + session.id(), session).GET().build()),
+                new Scenario("games.add", 5, session -> authorized("/games/add?gameId=" + nextLibraryGame.incrementAndGet(), session)
+                        .POST(BodyPublishers.noBody()).build()),
+                new Scenario("commentaries.game", 20, session -> get("/commentaries/games/" + randomGame())),
+                new Scenario("commentaries.post", 5, session -> post("/commentaries",
+                        Map.of("content", "Partie de test " + ThreadLocalRandom.current().nextInt(), "gameId", randomGame()))),
+                new Scenario("notes.top", 15, session -> get("/notes/games/top")),
+                new Scenario("notes.standing", 10, session -> get("/notes/games/" + randomGame() + "/standing?score="
+                        + ThreadLocalRandom.current().nextInt(101))),
+                new Scenario("notes.post", 20, session -> post("/notes", score(session, randomGame()))));
+    }
+
+    // Sends requests at the target rate until the end of the run, then waits for the ones in flight
+    private LoadReport drive(List<Scenario> scenarios, List<Session> sessions) throws InterruptedException {
+        int[] cumulativeWeights = new int[scenarios.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            totalWeight += scenarios.get(i).weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+        LoadReport report = new LoadReport();
+        Phaser inFlight = new Phaser(1);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long warmupNanos = warmup.toNanos();
+        long totalNanos = warmupNanos + duration.toNanos();
+        long start = System.nanoTime();
+        for (long i = 0; i * interval < totalNanos; i++) {
+            long scheduled = start + i * interval;
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            Scenario scenario = scenarios.get(index);
+            Session session = sessions.get(random.nextInt(sessions.size()));
+            boolean measured = i * interval >= warmupNanos;
+            inFlight.register();
+            client.sendAsync(scenario.request().apply(session), BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (measured) {
+                            report.record(scenario.name(), System.nanoTime() - scheduled,
+                                    error == null && response.statusCode() < 400);
+                        }
+                        inFlight.arriveAndDeregister();
+                    });
+        }
+        try {
+            inFlight.awaitAdvanceInterruptibly(inFlight.arrive(), REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("Some requests were still in flight at the end of the run");
+        }
+        return report;
+    }
+
+    private Session registerAndLogIn(int index) throws IOException, InterruptedException {
+        String username = "load" + index;
+        String email = username + "@example.com";
+        JsonNode user = send(post("/users/register", Map.of("username", username, "email", email, "password", PASSWORD)));
+        JsonNode login = send(post("/users/login", Map.of("email", email, "password", PASSWORD)));
+        return new Session(user.get("id").asLong(), user.get("slug").asText(), login.get("token").asText());
+    }
+
+    // Each user has a few games in their library, scores for half of the games and two commentaries
+    private void seed(List<Session> sessions) throws IOException, InterruptedException {
+        for (Session session : sessions) {
+            for (int i = 0; i < 3; i++) {
+                send(authorized("/games/add?gameId=" + nextLibraryGame.incrementAndGet(), session)
+                        .POST(BodyPublishers.noBody()).build());
+            }
+            for (int game = 0; game < GAME_COUNT; game += 2) {
+                send(post("/notes", score(session, FIRST_GAME_ID + (game + session.id()) % GAME_COUNT)));
+            }
+            for (int i = 0; i < 2; i++) {
+                send(post("/commentaries", Map.of("content", "Premier avis de " + session.slug(), "gameId", randomGame())));
+            }
+        }
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return request(path).header("Content-Type", "application/json")
+                    .POST(BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    // The API expects the bare token in the Authorization header
+    private HttpRequest.Builder authorized(String path, Session session) {
+        return request(path).header("Authorization", session.token());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private Map<String, Object> score(Session session, long gameId) {
+        return Map.of("userId", session.id(), "gameId", gameId, "score", ThreadLocalRandom.current().nextInt(101));
+    }
+
+    private long randomGame() {
+        return FIRST_GAME_ID + ThreadLocalRandom.current().nextInt(GAME_COUNT);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.function.Function;
+
+/**
+ * One kind of request of the load mix. {@code weight} is its share of the
+ * arrivals relative to the other scenarios, {@code request} builds a request
+ * for a given test user.
+ */
+record Scenario(String name, int weight, Function<LoadTest.Session, HttpRequest> request) {
+}
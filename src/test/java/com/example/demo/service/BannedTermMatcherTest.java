@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BannedTermMatcherTest {
+
+    @Test
+    void findFirst_ShouldMatchTermIgnoringCaseAndAccents() {
+        // Given
+        BannedTermMatcher matcher = BannedTermMatcher.of(List.of("épée maudite", "triche"));
+
+        // When
+        Optional<String> result = matcher.findFirst("Il a trouvé une EPEE Maudite dans le donjon");
+
+        // Then
+        assertThat(result).contains("epee maudite");
+    }
+
+    @Test
+    void findFirst_ShouldOnlyMatchWholeWords() {
+        // Given
+        BannedTermMatcher matcher = BannedTermMatcher.of(List.of("ass"));
+
+        // Then
+        assertThat(matcher.findFirst("Un assassin dans Assassin's Creed")).isEmpty();
+        assertThat(matcher.findFirst("quel ass!")).contains("ass");
+    }
+
+    @Test
+    void findFirst_ShouldFollowFailureLinksToOverlappingTerms() {
+        // Given
+        BannedTermMatcher matcher = BannedTermMatcher.of(List.of("he", "she", "his", "hers"));
+
+        // Then
+        assertThat(matcher.findFirst("ushers")).isEmpty();
+        assertThat(matcher.findFirst("us hers")).contains("hers");
+        assertThat(matcher.findFirst("xshe")).isEmpty();
+        assertThat(matcher.findFirst("x she")).contains("she");
+    }
+
+    @Test
+    void findFirst_ShouldReportShorterTermReachedThroughDictionaryLink() {
+        // Given
+        BannedTermMatcher matcher = BannedTermMatcher.of(List.of("abcd", "bc"));
+
+        // When
+        Optional<String> result = matcher.findFirst("a bc");
+
+        // Then
+        assertThat(result).contains("bc");
+    }
+
+    @Test
+    void findFirst_ShouldReturnEmpty_WhenNoTerms() {
+        // Given
+        BannedTermMatcher matcher = BannedTermMatcher.of(List.of());
+
+        // Then
+        assertThat(matcher.findFirst("anything")).isEmpty();
+        assertThat(matcher.findFirst(null)).isEmpty();
+        assertThat(matcher.size()).isZero();
+    }
+
+    @Test
+    void of_ShouldIgnoreBlankAndDuplicateTerms() {
+        // Given
+        BannedTermMatcher matcher = BannedTermMatcher.of(List.of("Triche", "triché", "  ", ""));
+
+        // Then
+        assertThat(matcher.size()).isEqualTo(1);
+    }
+}
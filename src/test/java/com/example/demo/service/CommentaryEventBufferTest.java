@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommentaryEventBufferTest {
+
+    @Test
+    void append_ShouldAssignIncreasingIds() {
+        // Given
+        CommentaryEventBuffer buffer = new CommentaryEventBuffer(4);
+
+        // When
+        CommentaryEventBuffer.Event first = buffer.append("a");
+        CommentaryEventBuffer.Event second = buffer.append("b");
+
+        // Then
+        assertThat(first.id()).isEqualTo(1L);
+        assertThat(second.id()).isEqualTo(2L);
+        assertThat(buffer.lastId()).isEqualTo(2L);
+    }
+
+    @Test
+    void since_ShouldReturnEventsAfterLastEventId() {
+        // Given
+        CommentaryEventBuffer buffer = new CommentaryEventBuffer(4);
+        buffer.append("a");
+        buffer.append("b");
+        buffer.append("c");
+
+        // When
+        List<CommentaryEventBuffer.Event> result = buffer.since(1L);
+
+        // Then
+        assertThat(result).extracting(CommentaryEventBuffer.Event::payload).containsExactly("b", "c");
+    }
+
+    @Test
+    void since_ShouldSkipOverwrittenEvents_WhenBufferWrapped() {
+        // Given
+        CommentaryEventBuffer buffer = new CommentaryEventBuffer(3);
+        for (String payload : List.of("a", "b", "c", "d", "e")) {
+            buffer.append(payload);
+        }
+
+        // When
+        List<CommentaryEventBuffer.Event> result = buffer.since(0L);
+
+        // Then
+        assertThat(result).extracting(CommentaryEventBuffer.Event::id).containsExactly(3L, 4L, 5L);
+        assertThat(result).extracting(CommentaryEventBuffer.Event::payload).containsExactly("c", "d", "e");
+    }
+
+    @Test
+    void since_ShouldReturnEmpty_WhenClientIsUpToDate() {
+        // Given
+        CommentaryEventBuffer buffer = new CommentaryEventBuffer(3);
+        buffer.append("a");
+
+        // When
+        List<CommentaryEventBuffer.Event> result = buffer.since(1L);
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPositiveCapacity() {
+        assertThatThrownBy(() -> new CommentaryEventBuffer(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
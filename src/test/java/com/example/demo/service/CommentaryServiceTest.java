@@ -2,21 +2,34 @@ package com.example.demo.service;
 
 import com.example.demo.entity.Commentary;
 import com.example.demo.entity.User;
+import com.example.demo.entity.dto.AuthorCardDTO;
+import com.example.demo.entity.dto.CommentaryDTO;
 import com.example.demo.repository.CommentaryRepository;
+import com.example.demo.repository.CommentaryRepository.CommentaryRow;
+import com.example.demo.repository.CommentaryRepository.ReplyCount;
+import com.example.demo.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +38,15 @@ class CommentaryServiceTest {
     @Mock
     private CommentaryRepository commentaryRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CommentaryStreamService commentaryStreamService;
+
+    @Mock
+    private ModerationService moderationService;
+
     @InjectMocks
     private CommentaryService commentaryService;
 
@@ -84,6 +106,52 @@ class CommentaryServiceTest {
         verify(commentaryRepository, times(1)).findById(commentaryId);
     }
 
+    @Test
+    void getPage_ShouldHydrateAuthorsWithSingleBatchQuery() {
+        // Given
+        List<CommentaryRow> rows = Arrays.asList(
+                row(3L, "Third", 1, 10L),
+                row(2L, "Second", 1, 20L),
+                row(1L, "First", 1, 10L));
+        when(commentaryRepository.findRowsByGameId(eq(1), any(Pageable.class))).thenReturn(rows);
+        when(userRepository.findAuthorCardsByIdIn(anyCollection())).thenReturn(Arrays.asList(
+                new AuthorCardDTO(10L, "Marwa", "marwa", null),
+                new AuthorCardDTO(20L, "Filip", "filip", "filip.png")));
+
+        // When
+        List<CommentaryDTO> result = commentaryService.getPage(1, 0, 50);
+
+        // Then
+        assertThat(result).extracting(CommentaryDTO::getContent).containsExactly("Third", "Second", "First");
+        assertThat(result).extracting(dto -> dto.getAuthor().getSlug()).containsExactly("marwa", "filip", "marwa");
+        verify(userRepository, times(1)).findAuthorCardsByIdIn(List.of(10L, 20L));
+    }
+
+    @Test
+    void getPage_ShouldNotQueryAuthors_WhenPageIsEmpty() {
+        // Given
+        when(commentaryRepository.findRows(any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        List<CommentaryDTO> result = commentaryService.getPage(null, 0, 50);
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(userRepository, never()).findAuthorCardsByIdIn(anyCollection());
+    }
+
+    @Test
+    void getPage_ShouldCapPageSize() {
+        // Given
+        when(commentaryRepository.findRows(any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        commentaryService.getPage(null, 0, 10_000);
+
+        // Then
+        verify(commentaryRepository).findRows(argThat(pageable -> pageable.getPageSize() == CommentaryService.MAX_PAGE_SIZE));
+    }
+
     @Test
     void createCommentary_ShouldSaveAndReturnCommentary() {
         // Given
@@ -97,6 +165,7 @@ class CommentaryServiceTest {
         assertThat(result.getContent()).isEqualTo("Great game!");
         assertThat(result.getGameId()).isEqualTo(1);
         verify(commentaryRepository, times(1)).save(commentary);
+        verify(commentaryStreamService, times(1)).publish(any(CommentaryDTO.class));
     }
 
     @Test
@@ -115,6 +184,136 @@ class CommentaryServiceTest {
         verify(commentaryRepository, times(1)).save(newCommentary);
     }
 
+    @Test
+    void createCommentary_ShouldPublishAuthorCard_WhenOnlyAuthorIdIsPosted() {
+        // Given: no one follows the game
+        User author = new User();
+        ReflectionTestUtils.setField(author, "id", 10L);
+        Commentary posted = new Commentary("Premier avis", author, 1);
+        when(commentaryRepository.save(any(Commentary.class))).thenReturn(posted);
+        when(userRepository.findAuthorCardsByIdIn(List.of(10L)))
+                .thenReturn(List.of(new AuthorCardDTO(10L, "ergy", "ergy", null)));
+
+        // When
+        commentaryService.createCommentary(posted);
+
+        // Then
+        verify(commentaryStreamService).publish(argThat(dto -> dto.getAuthor() != null
+                && dto.getAuthor().getSlug().equals("ergy")));
+        verify(commentaryStreamService, never()).subscriberCount(anyInt());
+    }
+
+    @Test
+    void createCommentary_ShouldReject_WhenContentContainsBannedTerm() {
+        // Given
+        Commentary banned = new Commentary("Quel jeu de merde", user, 1);
+        when(moderationService.findBannedTerm("Quel jeu de merde")).thenReturn(Optional.of("merde"));
+
+        // When / Then
+        assertThatThrownBy(() -> commentaryService.createCommentary(banned))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(commentaryRepository, never()).save(any(Commentary.class));
+        verify(commentaryStreamService, never()).publish(any(CommentaryDTO.class));
+    }
+
+    @Test
+    void reply_ShouldAttachReplyToParentGame() {
+        // Given
+        Commentary parent = new Commentary("Ce jeu est génial", user, 7);
+        Commentary reply = new Commentary("Je suis d'accord", user, 0);
+        when(commentaryRepository.findById(1L)).thenReturn(Optional.of(parent));
+        when(commentaryRepository.save(any(Commentary.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Commentary result = commentaryService.reply(1L, reply);
+
+        // Then
+        assertThat(result.getParent()).isSameAs(parent);
+        assertThat(result.getGameId()).isEqualTo(7);
+        verify(commentaryStreamService, times(1)).publish(any(CommentaryDTO.class));
+    }
+
+    @Test
+    void reply_ShouldReject_WhenThreadIsTooDeep() {
+        // Given
+        Commentary parent = new Commentary("Racine", user, 7);
+        for (int depth = 1; depth < Commentary.MAX_DEPTH; depth++) {
+            parent = deepReply(parent);
+        }
+        when(commentaryRepository.findById(1L)).thenReturn(Optional.of(parent));
+
+        // When / Then
+        assertThatThrownBy(() -> commentaryService.reply(1L, new Commentary("Trop loin", user, 7)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(commentaryRepository, never()).save(any(Commentary.class));
+    }
+
+    @Test
+    void getTopLevelPage_ShouldAttachReplyCountsFromSingleGroupedQuery() {
+        // Given
+        when(commentaryRepository.findTopLevelRowsByGameId(eq(1), any(Pageable.class))).thenReturn(Arrays.asList(
+                row(5L, "Sans réponse", 1, null),
+                row(1L, "Populaire", 1, null)));
+        when(commentaryRepository.countRepliesByRootIds(List.of(5L, 1L))).thenReturn(List.of(replyCount(1L, 12L)));
+
+        // When
+        List<CommentaryDTO> result = commentaryService.getTopLevelPage(1, 0, 20);
+
+        // Then
+        assertThat(result).extracting(CommentaryDTO::getReplyCount).containsExactly(0L, 12L);
+        verify(userRepository, never()).findAuthorCardsByIdIn(anyCollection());
+    }
+
+    @Test
+    void getThread_ShouldReadWholeThreadByRoot_WhenCommentaryIsTopLevel() {
+        // Given
+        CommentaryRow root = row(1L, "Racine", 1, null);
+        when(commentaryRepository.findRowById(1L)).thenReturn(Optional.of(root));
+        when(commentaryRepository.findThreadRows(1L)).thenReturn(List.of(root,
+                row(2L, "Réponse", 1, null, 1L, 1L, root.getPath() + Commentary.pathSegment(2L), 1)));
+
+        // When
+        List<CommentaryDTO> result = commentaryService.getThread(1L);
+
+        // Then
+        assertThat(result).extracting(CommentaryDTO::getId).containsExactly(1L, 2L);
+        assertThat(result).extracting(CommentaryDTO::getParentId).containsExactly(null, 1L);
+        verify(commentaryRepository, never()).findSubtreeRows(anyString());
+    }
+
+    @Test
+    void getThread_ShouldReadSubtreeByPathPrefix_WhenCommentaryIsAReply() {
+        // Given
+        String path = Commentary.pathSegment(1L) + Commentary.pathSegment(2L);
+        CommentaryRow reply = row(2L, "Réponse", 1, null, 1L, 1L, path, 1);
+        when(commentaryRepository.findRowById(2L)).thenReturn(Optional.of(reply));
+        when(commentaryRepository.findSubtreeRows(path + "%")).thenReturn(List.of(reply));
+
+        // When
+        List<CommentaryDTO> result = commentaryService.getThread(2L);
+
+        // Then
+        assertThat(result).extracting(CommentaryDTO::getId).containsExactly(2L);
+        verify(commentaryRepository, never()).findThreadRows(anyLong());
+    }
+
+    @Test
+    void deleteCommentary_ShouldDeleteRepliesDeepestFirst() {
+        // Given
+        String path = Commentary.pathSegment(1L);
+        when(commentaryRepository.findRowById(1L)).thenReturn(Optional.of(row(1L, "Racine", 1, null)));
+        when(commentaryRepository.findMaxDepthByPath(path + "%")).thenReturn(2);
+
+        // When
+        commentaryService.deleteCommentary(1L);
+
+        // Then
+        InOrder inOrder = inOrder(commentaryRepository);
+        inOrder.verify(commentaryRepository).deleteByPathAndDepth(path + "%", 2);
+        inOrder.verify(commentaryRepository).deleteByPathAndDepth(path + "%", 1);
+        inOrder.verify(commentaryRepository).deleteById(1L);
+    }
+
     @Test
     void deleteCommentary_ShouldCallRepositoryDelete() {
         // Given
@@ -140,4 +339,63 @@ class CommentaryServiceTest {
         // Then
         verify(commentaryRepository, times(1)).deleteById(commentaryId);
     }
+
+    private Commentary deepReply(Commentary parent) {
+        Commentary reply = new Commentary("Réponse", user, parent);
+        ReflectionTestUtils.invokeMethod(reply, "prepareThreadPosition");
+        return reply;
+    }
+
+    private ReplyCount replyCount(Long rootId, long count) {
+        return new ReplyCount() {
+            public Long getRootId() {
+                return rootId;
+            }
+
+            public long getReplyCount() {
+                return count;
+            }
+        };
+    }
+
+    private CommentaryRow row(Long id, String content, int gameId, Long userId) {
+        return row(id, content, gameId, userId, null, id, Commentary.pathSegment(id), 0);
+    }
+
+    private CommentaryRow row(Long id, String content, int gameId, Long userId,
+            Long parentId, Long rootId, String path, int depth) {
+        return new CommentaryRow() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getContent() {
+                return content;
+            }
+
+            public int getGameId() {
+                return gameId;
+            }
+
+            public Long getUserId() {
+                return userId;
+            }
+
+            public Long getParentId() {
+                return parentId;
+            }
+
+            public Long getRootId() {
+                return rootId;
+            }
+
+            public String getPath() {
+                return path;
+            }
+
+            public int getDepth() {
+                return depth;
+            }
+        };
+    }
 }
\ No newline at end of file
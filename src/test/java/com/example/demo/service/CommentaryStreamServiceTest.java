@@ -0,0 +1,165 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.entity.dto.CommentaryDTO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommentaryStreamServiceTest {
+
+    // Records the ids of the events sent, each send waiting for the latch
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Long> ids = new LinkedBlockingQueue<>();
+        private final CountDownLatch sendable;
+        private volatile boolean completed;
+        private volatile Runnable onCompletion;
+
+        private RecordingEmitter(CountDownLatch sendable) {
+            this.sendable = sendable;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                sendable.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                String text = String.valueOf(data.getData());
+                if (text.startsWith("id:")) {
+                    ids.add(Long.parseLong(text.substring(3, text.indexOf('\n'))));
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            onCompletion = callback;
+        }
+
+        // As when the client goes away
+        private void close() {
+            onCompletion.run();
+        }
+
+        private List<Long> take(int count) throws InterruptedException {
+            List<Long> taken = new ArrayList<>();
+            for (int index = 0; index < count; index++) {
+                Long id = ids.poll(5, TimeUnit.SECONDS);
+                if (id == null) {
+                    break;
+                }
+                taken.add(id);
+            }
+            return taken;
+        }
+    }
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    private CountDownLatch sendable = new CountDownLatch(0);
+
+    private final CommentaryStreamService service = new CommentaryStreamService() {
+        @Override
+        SseEmitter createEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter(sendable);
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    private void publish(int gameId, String content) {
+        service.publish(new CommentaryDTO(null, content, gameId, null));
+    }
+
+    @Test
+    void publish_ShouldDisconnectSlowSubscriber_WhenItsQueueIsFull() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(service, "subscriberQueueSize", 2);
+        sendable = new CountDownLatch(1);
+        service.subscribe(3, null);
+        RecordingEmitter slow = emitters.get(0);
+
+        // When: the sender blocks on the first event, two more fill the queue
+        for (int event = 0; event < 4; event++) {
+            publish(3, "c" + event);
+            Thread.sleep(50);
+        }
+
+        // Then
+        assertThat(slow.completed).isTrue();
+        assertThat(service.subscriberCount(3)).isZero();
+    }
+
+    @Test
+    void subscribe_ShouldReplayEventsAfterLastEventId_ThenDeliverLive() throws Exception {
+        // Given
+        service.subscribe(3, null);
+        publish(3, "a");
+        publish(3, "b");
+        publish(3, "c");
+        List<Long> seen = emitters.get(0).take(3);
+
+        // When
+        service.subscribe(3, seen.get(0));
+        publish(3, "d");
+
+        // Then
+        assertThat(emitters.get(1).take(3)).containsExactly(seen.get(1), seen.get(2), seen.get(2) + 1);
+    }
+
+    @Test
+    void evictIdleFeeds_ShouldDropFeedsWithoutSubscribers_AndKeepIdsIncreasing() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(service, "idleTimeout", Duration.ZERO);
+        service.subscribe(3, null);
+        publish(3, "a");
+        long first = emitters.get(0).take(1).get(0);
+        emitters.get(0).close();
+        publish(4, "no feed");
+
+        // When
+        service.evictIdleFeeds();
+        int left = service.feedCount();
+        service.subscribe(3, first);
+        publish(3, "b");
+
+        // Then
+        assertThat(left).isZero();
+        assertThat(emitters.get(1).take(1)).containsExactly(first + 1);
+    }
+
+    @Test
+    void subscribe_ShouldRefuseNewFeeds_BeyondMaximum() {
+        // Given
+        ReflectionTestUtils.setField(service, "maxFeeds", 1);
+        service.subscribe(3, null);
+
+        // When / Then
+        service.subscribe(3, null);
+        assertThatThrownBy(() -> service.subscribe(4, null)).isInstanceOf(IllegalStateException.class);
+        assertThat(service.feedCount()).isEqualTo(1);
+    }
+}
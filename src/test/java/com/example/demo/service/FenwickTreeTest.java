@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FenwickTreeTest {
+
+    @Test
+    void countAtMost_ShouldSumCountsUpToValue() {
+        // Given
+        FenwickTree tree = new FenwickTree(10);
+
+        // When
+        tree.add(2, 3);
+        tree.add(5, 1);
+        tree.add(9, 2);
+
+        // Then
+        assertThat(tree.countAtMost(-1)).isZero();
+        assertThat(tree.countAtMost(1)).isZero();
+        assertThat(tree.countAtMost(2)).isEqualTo(3);
+        assertThat(tree.countAtMost(8)).isEqualTo(4);
+        assertThat(tree.countAtMost(100)).isEqualTo(6);
+        assertThat(tree.count(9)).isEqualTo(2);
+        assertThat(tree.total()).isEqualTo(6);
+    }
+
+    @Test
+    void kth_ShouldReturnKthSmallestValue() {
+        // Given
+        FenwickTree tree = new FenwickTree(10);
+        tree.add(2, 3);
+        tree.add(7, 1);
+
+        // Then
+        assertThat(tree.kth(1)).isEqualTo(2);
+        assertThat(tree.kth(3)).isEqualTo(2);
+        assertThat(tree.kth(4)).isEqualTo(7);
+        assertThat(tree.kth(0)).isEqualTo(-1);
+        assertThat(tree.kth(5)).isEqualTo(-1);
+    }
+
+    @Test
+    void operations_ShouldMatchBruteForce() {
+        // Given
+        Random random = new Random(31);
+        int size = 101;
+        FenwickTree tree = new FenwickTree(size);
+        int[] counts = new int[size];
+
+        for (int round = 0; round < 5_000; round++) {
+            // When
+            int value = random.nextInt(size);
+            int delta = counts[value] > 0 && random.nextBoolean() ? -1 : 1;
+            tree.add(value, delta);
+            counts[value] += delta;
+
+            // Then
+            int probe = random.nextInt(size);
+            long expected = 0;
+            for (int i = 0; i <= probe; i++) {
+                expected += counts[i];
+            }
+            assertThat(tree.countAtMost(probe)).isEqualTo(expected);
+            if (tree.total() > 0) {
+                long k = 1 + random.nextInt((int) tree.total());
+                int kth = tree.kth(k);
+                assertThat(tree.countAtMost(kth)).isGreaterThanOrEqualTo(k);
+                assertThat(tree.countAtMost(kth - 1)).isLessThan(k);
+            }
+        }
+    }
+
+    @Test
+    void add_ShouldRejectValueOutOfRange() {
+        FenwickTree tree = new FenwickTree(5);
+
+        assertThatThrownBy(() -> tree.add(5, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
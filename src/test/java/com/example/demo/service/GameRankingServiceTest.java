@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.dto.GameRankingDTO;
+import com.example.demo.repository.ScoreRepository;
+import com.example.demo.repository.ScoreRepository.GameScoreTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameRankingServiceTest {
+
+    @Mock
+    private ScoreRepository scoreRepository;
+
+    @InjectMocks
+    private GameRankingService gameRankingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameRankingService, "priorWeight", 10.0);
+        ReflectionTestUtils.setField(gameRankingService, "configuredPriorMean", 50.0);
+    }
+
+    @Test
+    void rebuild_ShouldRankGamesByBayesianAverage() {
+        // Given
+        when(scoreRepository.sumScoresByGame()).thenReturn(List.of(
+                totals(1L, 2, 200L),     // two perfect scores: (500 + 200) / 12 = 58.3
+                totals(2L, 100, 8_000L), // many good scores: (500 + 8000) / 110 = 77.3
+                totals(3L, 10, 300L)));  // (500 + 300) / 20 = 40
+
+        // When
+        gameRankingService.rebuild();
+
+        // Then
+        List<GameRankingDTO> top = gameRankingService.getTopRated(0, 10);
+        assertThat(top).extracting(GameRankingDTO::getGameId).containsExactly(2L, 1L, 3L);
+        assertThat(top).extracting(GameRankingDTO::getRank).containsExactly(1, 2, 3);
+        assertThat(top.get(0).getRating()).isCloseTo(77.27, within(0.01));
+        assertThat(top.get(1).getAverage()).isEqualTo(100.0);
+    }
+
+    @Test
+    void rebuild_ShouldUseGlobalAverage_WhenPriorMeanIsNotConfigured() {
+        // Given
+        ReflectionTestUtils.setField(gameRankingService, "configuredPriorMean", -1.0);
+        when(scoreRepository.sumScoresByGame()).thenReturn(List.of(totals(1L, 1, 80L), totals(2L, 3, 120L)));
+
+        // When
+        gameRankingService.rebuild();
+
+        // Then global mean is 200 / 4 = 50, game 1 is (500 + 80) / 11
+        assertThat(gameRankingService.getRank(1L).get().getRating()).isCloseTo(52.73, within(0.01));
+    }
+
+    @Test
+    void onScoreSaved_ShouldUpdateRankIncrementally() {
+        // Given
+        when(scoreRepository.sumScoresByGame()).thenReturn(List.of(totals(1L, 10, 700L), totals(2L, 10, 600L)));
+        gameRankingService.rebuild();
+        assertThat(gameRankingService.getRank(2L).get().getRank()).isEqualTo(2);
+
+        // When
+        for (long userId = 100; userId < 110; userId++) {
+            gameRankingService.onScoreSaved(null, new Score(null, 100L, userId, 2L));
+        }
+
+        // Then
+        assertThat(gameRankingService.getRank(2L).get().getRank()).isEqualTo(1);
+        assertThat(gameRankingService.getRank(2L).get().getCount()).isEqualTo(20);
+    }
+
+    @Test
+    void onScoreSaved_ShouldMoveScoreBetweenGames_WhenGameChanges() {
+        // When
+        gameRankingService.onScoreSaved(null, new Score(1L, 90L, 1L, 1L));
+        gameRankingService.onScoreSaved(new Score(1L, 90L, 1L, 1L), new Score(1L, 90L, 1L, 2L));
+
+        // Then
+        assertThat(gameRankingService.getRank(1L)).isEmpty();
+        assertThat(gameRankingService.getRank(2L)).isPresent();
+        assertThat(gameRankingService.rankedGames()).isEqualTo(1);
+    }
+
+    @Test
+    void onScoreDeleted_ShouldRemoveGame_WhenLastScoreIsDeleted() {
+        // Given
+        gameRankingService.onScoreSaved(null, new Score(1L, 90L, 1L, 1L));
+
+        // When
+        gameRankingService.onScoreDeleted(new Score(1L, 90L, 1L, 1L));
+
+        // Then
+        assertThat(gameRankingService.getRank(1L)).isEmpty();
+        assertThat(gameRankingService.getTopRated(0, 10)).isEmpty();
+    }
+
+    @Test
+    void getTopRated_ShouldPaginate() {
+        // Given
+        for (long gameId = 1; gameId <= 25; gameId++) {
+            gameRankingService.onScoreSaved(null, new Score(gameId, gameId, 1L, gameId));
+        }
+
+        // When
+        List<GameRankingDTO> secondPage = gameRankingService.getTopRated(1, 10);
+
+        // Then
+        assertThat(secondPage).hasSize(10);
+        assertThat(secondPage.get(0).getRank()).isEqualTo(11);
+        assertThat(secondPage.get(0).getGameId()).isEqualTo(15L);
+        assertThat(gameRankingService.getTopRated(2, 10)).hasSize(5);
+    }
+
+    @Test
+    void getRank_ShouldReturnEmpty_WhenGameHasNoScore() {
+        Optional<GameRankingDTO> result = gameRankingService.getRank(42L);
+
+        assertThat(result).isEmpty();
+    }
+
+    private GameScoreTotals totals(Long gameId, long count, Long sum) {
+        return new GameScoreTotals() {
+            public Long getGameId() {
+                return gameId;
+            }
+
+            public long getCount() {
+                return count;
+            }
+
+            public Long getSum() {
+                return sum;
+            }
+        };
+    }
+}
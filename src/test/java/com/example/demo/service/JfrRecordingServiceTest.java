@@ -0,0 +1,127 @@
+package com.example.demo.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.entity.dto.JfrRecordingDTO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrRecordingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private JfrRecordingService jfrRecordingService;
+
+    @BeforeEach
+    void setUp() {
+        jfrRecordingService = new JfrRecordingService();
+        ReflectionTestUtils.setField(jfrRecordingService, "directory", directory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jfrRecordingService.close();
+    }
+
+    @Test
+    void start_ShouldRejectUnknownProfileOrDuration() {
+        // When / Then
+        assertThatThrownBy(() -> jfrRecordingService.start("verbose", Duration.ofSeconds(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jfrRecordingService.start("default", Duration.ofHours(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jfrRecordingService.start("default", Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getFile_ShouldReturnRecording_OnceDurationElapsed() throws Exception {
+        // Given
+        JfrRecordingDTO recording = jfrRecordingService.start("profile", Duration.ofMillis(500));
+        assertThat(recording.getState()).isEqualTo("RUNNING");
+        assertThatThrownBy(() -> jfrRecordingService.getFile(recording.getId()))
+                .isInstanceOf(IllegalStateException.class);
+
+        // When
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (jfrRecordingService.getRecording(recording.getId()).get().getState().equals("RUNNING")
+                && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        // Then
+        Path file = jfrRecordingService.getFile(recording.getId()).get();
+        assertThat(file.getParent()).isEqualTo(directory);
+        assertThat(Files.size(file)).isPositive();
+        assertThat(jfrRecordingService.delete(recording.getId())).isTrue();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void purgeFinished_ShouldRemoveStoppedRecordings_BeyondCountThenPastRetention() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(jfrRecordingService, "maxKept", 1);
+        JfrRecordingDTO first = jfrRecordingService.start("default", Duration.ofMillis(200));
+        awaitStopped(first.getId());
+        Path firstFile = jfrRecordingService.getFile(first.getId()).get();
+        JfrRecordingDTO second = jfrRecordingService.start("default", Duration.ofMillis(200));
+        awaitStopped(second.getId());
+
+        // When
+        jfrRecordingService.purgeFinished();
+        boolean kept = jfrRecordingService.getRecording(second.getId()).isPresent();
+        ReflectionTestUtils.setField(jfrRecordingService, "retention", Duration.ZERO);
+        jfrRecordingService.purgeFinished();
+
+        // Then
+        assertThat(kept).isTrue();
+        assertThat(firstFile).doesNotExist();
+        assertThat(jfrRecordingService.getRecordings()).isEmpty();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void start_ShouldRefuse_WhenTooManyRecordingsRun() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(jfrRecordingService, "maxRunning", 1);
+        jfrRecordingService.start("default", Duration.ofMinutes(1));
+
+        // When / Then
+        assertThatThrownBy(() -> jfrRecordingService.start("default", Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void dumpContinuous_ShouldWriteRingBufferToNewFile() throws Exception {
+        // Given
+        assertThatThrownBy(() -> jfrRecordingService.dumpContinuous()).isInstanceOf(IllegalStateException.class);
+        ReflectionTestUtils.setField(jfrRecordingService, "continuousEnabled", true);
+        jfrRecordingService.startContinuous();
+
+        // When
+        Path first = jfrRecordingService.dumpContinuous();
+        Path second = jfrRecordingService.dumpContinuous();
+
+        // Then
+        assertThat(first).isNotEqualTo(second);
+        assertThat(Files.size(first)).isPositive();
+        assertThat(jfrRecordingService.getRecordings()).extracting(JfrRecordingDTO::getName).containsExactly("continuous");
+    }
+
+    private void awaitStopped(long id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (jfrRecordingService.getRecording(id).get().getState().equals("RUNNING") && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+}
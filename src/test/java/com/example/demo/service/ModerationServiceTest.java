@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModerationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reloadIfChanged_ShouldLoadTermsFromFile() throws Exception {
+        // Given
+        Path terms = Files.writeString(tempDir.resolve("terms.txt"), "# insultes\ntriche\n\nnoob\n");
+        ModerationService moderationService = serviceFor(terms);
+
+        // When
+        moderationService.init();
+
+        // Then
+        assertThat(moderationService.termCount()).isEqualTo(2);
+        assertThat(moderationService.findBannedTerm("Gros NOOB")).contains("noob");
+    }
+
+    @Test
+    void reloadIfChanged_ShouldPickUpModifiedFile() throws Exception {
+        // Given
+        Path terms = Files.writeString(tempDir.resolve("terms.txt"), "triche\n");
+        ModerationService moderationService = serviceFor(terms);
+        moderationService.init();
+
+        // When
+        Files.writeString(terms, "triche\nrage\n");
+        Files.setLastModifiedTime(terms, FileTime.from(Instant.now().plusSeconds(5)));
+        moderationService.reloadIfChanged();
+
+        // Then
+        assertThat(moderationService.termCount()).isEqualTo(2);
+        assertThat(moderationService.findBannedTerm("quelle rage")).contains("rage");
+    }
+
+    @Test
+    void reloadIfChanged_ShouldKeepTerms_WhenFileDisappears() throws Exception {
+        // Given
+        Path terms = Files.writeString(tempDir.resolve("terms.txt"), "triche\n");
+        ModerationService moderationService = serviceFor(terms);
+        moderationService.init();
+
+        // When
+        Files.delete(terms);
+        moderationService.reloadIfChanged();
+
+        // Then
+        assertThat(moderationService.findBannedTerm("triche")).contains("triche");
+    }
+
+    @Test
+    void findBannedTerm_ShouldAcceptEverything_WhenNoFileConfigured() {
+        // Given
+        ModerationService moderationService = serviceFor(null);
+        moderationService.init();
+
+        // Then
+        assertThat(moderationService.findBannedTerm("triche")).isEmpty();
+    }
+
+    @Test
+    void replaceTerms_ShouldSwapMatcher() {
+        // Given
+        ModerationService moderationService = serviceFor(null);
+
+        // When
+        moderationService.replaceTerms(List.of("spoiler"));
+
+        // Then
+        assertThat(moderationService.findBannedTerm("attention SPOILER")).contains("spoiler");
+    }
+
+    private ModerationService serviceFor(Path terms) {
+        ModerationService moderationService = new ModerationService();
+        ReflectionTestUtils.setField(moderationService, "termsFile", terms == null ? "" : terms.toString());
+        return moderationService;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatisticTreeTest {
+
+    @Test
+    void add_ShouldKeepElementsSortedAndUnique() {
+        // Given
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+
+        // When
+        tree.add(5);
+        tree.add(1);
+        tree.add(3);
+        boolean added = tree.add(3);
+
+        // Then
+        assertThat(added).isFalse();
+        assertThat(tree.size()).isEqualTo(3);
+        assertThat(tree.range(0, 10)).containsExactly(1, 3, 5);
+    }
+
+    @Test
+    void rankAndGet_ShouldBeInverse() {
+        // Given
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.reverseOrder());
+        for (int value = 0; value < 100; value++) {
+            tree.add(value);
+        }
+
+        // Then
+        assertThat(tree.get(0)).isEqualTo(99);
+        assertThat(tree.rank(99)).isZero();
+        assertThat(tree.rank(40)).isEqualTo(59);
+        assertThat(tree.get(59)).isEqualTo(40);
+    }
+
+    @Test
+    void remove_ShouldReturnFalse_WhenElementIsMissing() {
+        // Given
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        tree.add(1);
+
+        // Then
+        assertThat(tree.remove(2)).isFalse();
+        assertThat(tree.remove(1)).isTrue();
+        assertThat(tree.size()).isZero();
+    }
+
+    @Test
+    void get_ShouldRejectOutOfRangeIndex() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+
+        assertThatThrownBy(() -> tree.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void randomOperations_ShouldMatchTreeSet() {
+        // Given
+        Random random = new Random(7);
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertThat(tree.add(value)).isEqualTo(expected.add(value));
+            } else {
+                assertThat(tree.remove(value)).isEqualTo(expected.remove(value));
+            }
+        }
+
+        // Then
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertThat(tree.range(0, tree.size())).containsExactlyElementsOf(new ArrayList<>(expected));
+        for (int value : List.of(0, 500, 1_000, 1_999)) {
+            assertThat(tree.rank(value)).isEqualTo(expected.headSet(value).size());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.dto.ScoreBucketDTO;
+import com.example.demo.entity.dto.ScoreStandingDTO;
+import com.example.demo.repository.ScoreRepository;
+import com.example.demo.repository.ScoreRepository.GameScoreCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreDistributionServiceTest {
+
+    @Mock
+    private ScoreRepository scoreRepository;
+
+    @InjectMocks
+    private ScoreDistributionService scoreDistributionService;
+
+    @Test
+    void getStanding_ShouldReturnRankAndPercentile() {
+        // Given
+        when(scoreRepository.countScoresByGameAndValue()).thenReturn(List.of(
+                row(1L, 20L, 5), row(1L, 50L, 2), row(1L, 80L, 3), row(2L, 99L, 7)));
+        scoreDistributionService.rebuild();
+
+        // When
+        ScoreStandingDTO standing = scoreDistributionService.getStanding(1L, 50);
+
+        // Then
+        assertThat(standing.getPlayersAbove()).isEqualTo(3);
+        assertThat(standing.getPlayersTied()).isEqualTo(2);
+        assertThat(standing.getPlayersBelow()).isEqualTo(5);
+        assertThat(standing.getTotalPlayers()).isEqualTo(10);
+        assertThat(standing.getRank()).isEqualTo(4);
+        assertThat(standing.getPercentile()).isEqualTo(50.0);
+    }
+
+    @Test
+    void getStanding_ShouldBeEmpty_WhenGameHasNoScore() {
+        ScoreStandingDTO standing = scoreDistributionService.getStanding(42L, 50);
+
+        assertThat(standing.getTotalPlayers()).isZero();
+        assertThat(standing.getRank()).isEqualTo(1);
+    }
+
+    @Test
+    void onScoreSaved_ShouldMoveScoreBetweenValues() {
+        // Given
+        scoreDistributionService.onScoreSaved(null, new Score(1L, 40L, 1L, 1L));
+        scoreDistributionService.onScoreSaved(null, new Score(2L, 60L, 2L, 1L));
+
+        // When
+        scoreDistributionService.onScoreSaved(new Score(1L, 40L, 1L, 1L), new Score(1L, 70L, 1L, 1L));
+        scoreDistributionService.onScoreDeleted(new Score(2L, 60L, 2L, 1L));
+
+        // Then
+        ScoreStandingDTO standing = scoreDistributionService.getStanding(1L, 70);
+        assertThat(standing.getTotalPlayers()).isEqualTo(1);
+        assertThat(standing.getPlayersTied()).isEqualTo(1);
+    }
+
+    @Test
+    void onScoreSaved_ShouldClampScoresOutOfRange() {
+        // When
+        scoreDistributionService.onScoreSaved(null, new Score(1L, 250L, 1L, 1L));
+
+        // Then
+        assertThat(scoreDistributionService.getStanding(1L, 100).getPlayersTied()).isEqualTo(1);
+    }
+
+    @Test
+    void getHistogram_ShouldCountPlayersPerBucket() {
+        // Given
+        when(scoreRepository.countScoresByGameAndValue()).thenReturn(List.of(
+                row(1L, 0L, 1), row(1L, 24L, 2), row(1L, 25L, 3), row(1L, 100L, 4)));
+        scoreDistributionService.rebuild();
+
+        // When
+        List<ScoreBucketDTO> histogram = scoreDistributionService.getHistogram(1L, 4);
+
+        // Then 101 values in buckets of 26
+        assertThat(histogram).extracting(ScoreBucketDTO::getFrom).containsExactly(0L, 26L, 52L, 78L);
+        assertThat(histogram).extracting(ScoreBucketDTO::getTo).containsExactly(25L, 51L, 77L, 100L);
+        assertThat(histogram).extracting(ScoreBucketDTO::getPlayers).containsExactly(6L, 0L, 0L, 4L);
+    }
+
+    @Test
+    void getNeighbours_ShouldReturnNearestDistinctScores() {
+        // Given
+        when(scoreRepository.countScoresByGameAndValue()).thenReturn(List.of(
+                row(1L, 10L, 1), row(1L, 30L, 2), row(1L, 50L, 1), row(1L, 60L, 4), row(1L, 90L, 1)));
+        scoreDistributionService.rebuild();
+
+        // When
+        Map<String, List<ScoreBucketDTO>> neighbours = scoreDistributionService.getNeighbours(1L, 50, 2);
+
+        // Then
+        assertThat(neighbours.get("above")).extracting(ScoreBucketDTO::getFrom).containsExactly(60L, 90L);
+        assertThat(neighbours.get("above")).extracting(ScoreBucketDTO::getPlayers).containsExactly(4L, 1L);
+        assertThat(neighbours.get("below")).extracting(ScoreBucketDTO::getFrom).containsExactly(30L, 10L);
+    }
+
+    private GameScoreCount row(Long gameId, Long score, long count) {
+        return new GameScoreCount() {
+            public Long getGameId() {
+                return gameId;
+            }
+
+            public Long getScore() {
+                return score;
+            }
+
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
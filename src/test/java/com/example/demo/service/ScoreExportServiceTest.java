@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.ScoreBulkRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreExportServiceTest {
+
+    @Mock
+    private ScoreBulkRepository scoreBulkRepository;
+
+    @InjectMocks
+    private ScoreExportService scoreExportService;
+
+    @Test
+    void exportCsv_ShouldWriteHeaderAndOneLinePerRow() throws Exception {
+        // Given
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("1", "2");
+        when(resultSet.getString(2)).thenReturn("80", (String) null);
+        when(resultSet.getString(3)).thenReturn("5", "6");
+        when(resultSet.getString(4)).thenReturn("3", "3");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(scoreBulkRepository).streamScores(eq(3L), anyInt(), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = scoreExportService.exportCsv(3L, out);
+
+        // Then
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,score,user_id,game_id\n1,80,5,3\n2,,6,3\n");
+    }
+
+    @Test
+    void exportCsv_ShouldStopWithIOException_WhenOutputFails() throws Exception {
+        // Given
+        ResultSet resultSet = mock(ResultSet.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (int i = 0; i < 10_000; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(scoreBulkRepository).streamScores(isNull(), anyInt(), any());
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When / Then
+        assertThatThrownBy(() -> scoreExportService.exportCsv(null, broken))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+}
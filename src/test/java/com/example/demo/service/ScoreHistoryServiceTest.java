@@ -0,0 +1,286 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.ScoreEvent;
+import com.example.demo.entity.ScoreRollup;
+import com.example.demo.entity.ScoreRollup.Resolution;
+import com.example.demo.entity.dto.ScoreTrendPointDTO;
+import com.example.demo.repository.ScoreEventRepository;
+import com.example.demo.repository.ScoreEventRepository.ScorePoint;
+import com.example.demo.repository.ScoreRollupRepository;
+import com.example.demo.repository.ScoreRollupRepository.ScoreAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreHistoryServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T12:30:00Z");
+
+    @Mock
+    private ScoreEventRepository scoreEventRepository;
+
+    @Mock
+    private ScoreRollupRepository scoreRollupRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ScoreHistoryService scoreHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scoreHistoryService, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void onScoreSaved_ShouldAppendEventWithPreviousScore() {
+        // When
+        scoreHistoryService.onScoreSaved(new Score(1L, 40L, 2L, 3L), new Score(1L, 90L, 2L, 3L));
+
+        // Then
+        List<ScoreEvent> events = savedEvents();
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getGameId()).isEqualTo(3L);
+            assertThat(event.getPreviousScore()).isEqualTo(40L);
+            assertThat(event.getScore()).isEqualTo(90L);
+            assertThat(event.getCreatedAt()).isEqualTo(NOW);
+        });
+    }
+
+    @Test
+    void onScoreSaved_ShouldRecordRemovalAndInsert_WhenGameChanges() {
+        // When
+        scoreHistoryService.onScoreSaved(new Score(1L, 40L, 2L, 3L), new Score(1L, 40L, 2L, 4L));
+
+        // Then
+        List<ScoreEvent> events = savedEvents();
+        assertThat(events).extracting(ScoreEvent::getGameId).containsExactly(3L, 4L);
+        assertThat(events).extracting(ScoreEvent::getScore).containsExactly(null, 40L);
+    }
+
+    @Test
+    void onScoreSaved_ShouldIgnoreUnchangedScore() {
+        scoreHistoryService.onScoreSaved(new Score(1L, 40L, 2L, 3L), new Score(1L, 40L, 2L, 3L));
+
+        verify(scoreEventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void rollup_ShouldAggregateCompleteHoursOfEvents() {
+        // Given nothing rolled up yet, events from 10:05 on
+        when(scoreEventRepository.findEarliestCreatedAt()).thenReturn(Instant.parse("2026-03-10T10:05:00Z"));
+        when(scoreEventRepository.aggregateBetween(Instant.parse("2026-03-10T10:00:00Z"), Instant.parse("2026-03-10T11:00:00Z")))
+                .thenReturn(List.of(aggregate(1L, 2, 120, 40, 80), aggregate(2L, 1, 10, 10, 10)));
+        when(scoreEventRepository.aggregateBetween(Instant.parse("2026-03-10T11:00:00Z"), Instant.parse("2026-03-10T12:00:00Z")))
+                .thenReturn(List.of(aggregate(1L, 1, 60, 60, 60)));
+
+        // When
+        scoreHistoryService.rollup();
+
+        // Then
+        List<ScoreRollup> rollups = savedRollups();
+        assertThat(rollups).hasSize(3);
+        assertThat(rollups.get(0).getResolution()).isEqualTo(Resolution.HOUR);
+        assertThat(rollups.get(0).getGameId()).isEqualTo(1L);
+        assertThat(rollups.get(0).getBucketStart()).isEqualTo(Instant.parse("2026-03-10T10:00:00Z"));
+        assertThat(rollups.get(0).getScoreCount()).isEqualTo(2);
+        assertThat(rollups.get(0).getScoreSum()).isEqualTo(120);
+        assertThat(rollups.get(0).getMinScore()).isEqualTo(40);
+        assertThat(rollups.get(0).getMaxScore()).isEqualTo(80);
+        assertThat(rollups.get(2).getBucketStart()).isEqualTo(Instant.parse("2026-03-10T11:00:00Z"));
+        // Raw events are only pruned up to what was rolled up
+        verify(scoreEventRepository).deleteOlderThan(Instant.parse("2026-03-08T12:00:00Z"));
+    }
+
+    @Test
+    void rollup_ShouldRollHoursIntoDays_WhenDaysAreComplete() {
+        // Given hours rolled up to 12:00 today, days never
+        when(scoreRollupRepository.findLatestBucketStart(Resolution.HOUR)).thenReturn(Instant.parse("2026-03-10T11:00:00Z"));
+        when(scoreRollupRepository.findEarliestBucketStart(Resolution.HOUR)).thenReturn(Instant.parse("2026-03-08T05:00:00Z"));
+        when(scoreRollupRepository.aggregateBetween(Resolution.HOUR, Instant.parse("2026-03-08T00:00:00Z"), Instant.parse("2026-03-09T00:00:00Z")))
+                .thenReturn(List.of(aggregate(1L, 3, 190, 40, 90)));
+        when(scoreRollupRepository.aggregateBetween(Resolution.HOUR, Instant.parse("2026-03-09T00:00:00Z"), Instant.parse("2026-03-10T00:00:00Z")))
+                .thenReturn(List.of(aggregate(1L, 1, 10, 10, 10)));
+
+        // When
+        scoreHistoryService.rollup();
+
+        // Then
+        List<ScoreRollup> days = savedRollups().stream().filter(r -> r.getResolution() == Resolution.DAY).toList();
+        assertThat(days).extracting(ScoreRollup::getBucketStart)
+                .containsExactly(Instant.parse("2026-03-08T00:00:00Z"), Instant.parse("2026-03-09T00:00:00Z"));
+        assertThat(days).extracting(ScoreRollup::getScoreCount).containsExactly(3L, 1L);
+        assertThat(days.get(0).getScoreSum()).isEqualTo(190);
+        assertThat(days.get(0).getMinScore()).isEqualTo(40);
+        assertThat(days.get(0).getMaxScore()).isEqualTo(90);
+    }
+
+    @Test
+    void rollup_ShouldResumeFromTable_WhenAnotherNodeWroteTheSameHours() {
+        // Given hours rolled up to 10:00, then another node rolls up 10:00 and 11:00 first
+        when(scoreRollupRepository.findLatestBucketStart(Resolution.HOUR))
+                .thenReturn(Instant.parse("2026-03-10T09:00:00Z"), Instant.parse("2026-03-10T11:00:00Z"));
+        when(scoreEventRepository.aggregateBetween(Instant.parse("2026-03-10T10:00:00Z"), Instant.parse("2026-03-10T11:00:00Z")))
+                .thenReturn(List.of(aggregate(1L, 1, 60, 60, 60)));
+        when(scoreRollupRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("uk_score_rollup_bucket"));
+
+        // When
+        scoreHistoryService.rollup();
+
+        // Then the next steps run from the new watermark
+        verify(scoreRollupRepository, times(1)).saveAll(any());
+        verify(scoreEventRepository).deleteOlderThan(Instant.parse("2026-03-08T12:00:00Z"));
+        verify(scoreRollupRepository).deleteOlderThan(eq(Resolution.HOUR), any());
+    }
+
+    @Test
+    void getTrend_ShouldReadDailyRollupsThenNewerTiers_WhenStepIsOneDay() {
+        // Given hours rolled up to 12:00 today, days to midnight
+        when(scoreRollupRepository.findLatestBucketStart(Resolution.HOUR)).thenReturn(Instant.parse("2026-03-10T11:00:00Z"));
+        when(scoreRollupRepository.findLatestBucketStart(Resolution.DAY)).thenReturn(Instant.parse("2026-03-09T00:00:00Z"));
+        Instant from = Instant.parse("2026-03-01T00:00:00Z");
+        Instant to = Instant.parse("2026-03-11T00:00:00Z");
+        Instant midnight = Instant.parse("2026-03-10T00:00:00Z");
+        Instant noon = Instant.parse("2026-03-10T12:00:00Z");
+        when(scoreRollupRepository.findBetweenByGameId(1L, Resolution.DAY, from, midnight))
+                .thenReturn(List.of(day(1L, "2026-03-02T00:00:00Z", 4, 200, 20, 80)));
+        when(scoreRollupRepository.findBetweenByGameId(1L, Resolution.HOUR, midnight, noon))
+                .thenReturn(List.of(hour(1L, "2026-03-10T03:00:00Z", 1, 50, 50, 50)));
+        when(scoreEventRepository.findScorePointsByGameId(1L, noon, to))
+                .thenReturn(List.of(point(1L, "2026-03-10T12:10:00Z", 70L)));
+
+        // When
+        List<ScoreTrendPointDTO> trend = scoreHistoryService.getTrend(1L, from, to, Duration.ofDays(1));
+
+        // Then
+        assertThat(trend).extracting(ScoreTrendPointDTO::getStart)
+                .containsExactly(Instant.parse("2026-03-02T00:00:00Z"), midnight);
+        assertThat(trend.get(0).getResolution()).isEqualTo("DAY");
+        assertThat(trend.get(0).getAverage()).isEqualTo(50.0);
+        assertThat(trend.get(1).getResolution()).isEqualTo("HOUR");
+        assertThat(trend.get(1).getCount()).isEqualTo(2);
+        assertThat(trend.get(1).getMax()).isEqualTo(70);
+    }
+
+    @Test
+    void getTrend_ShouldReadRawEventsOnly_WhenNothingIsRolledUp() {
+        // Given
+        Instant from = Instant.parse("2026-03-10T11:00:00Z");
+        Instant to = Instant.parse("2026-03-10T12:00:00Z");
+        when(scoreEventRepository.findScorePointsByGameId(1L, from, to)).thenReturn(List.of(
+                point(1L, "2026-03-10T11:01:00Z", 10L),
+                point(1L, "2026-03-10T11:04:00Z", 30L),
+                point(1L, "2026-03-10T11:50:00Z", 90L)));
+
+        // When
+        List<ScoreTrendPointDTO> trend = scoreHistoryService.getTrend(1L, from, to, Duration.ofMinutes(15));
+
+        // Then
+        assertThat(trend).extracting(ScoreTrendPointDTO::getCount).containsExactly(2L, 1L);
+        assertThat(trend.get(0).getAverage()).isEqualTo(20.0);
+        assertThat(trend.get(1).getStart()).isEqualTo(Instant.parse("2026-03-10T11:45:00Z"));
+        verify(scoreRollupRepository, never()).findBetweenByGameId(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void getTrend_ShouldRejectTooManyPoints() {
+        Instant to = Instant.parse("2026-03-10T00:00:00Z");
+
+        assertThatThrownBy(() -> scoreHistoryService.getTrend(1L, to.minus(Duration.ofDays(30)), to, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ScoreEvent> savedEvents() {
+        ArgumentCaptor<Collection<ScoreEvent>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(scoreEventRepository).saveAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ScoreRollup> savedRollups() {
+        ArgumentCaptor<Collection<ScoreRollup>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(scoreRollupRepository, atLeastOnce()).saveAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(Collection::stream).toList();
+    }
+
+    private ScoreRollup hour(Long gameId, String start, long count, long sum, long min, long max) {
+        return rollup(gameId, Resolution.HOUR, start, count, sum, min, max);
+    }
+
+    private ScoreRollup day(Long gameId, String start, long count, long sum, long min, long max) {
+        return rollup(gameId, Resolution.DAY, start, count, sum, min, max);
+    }
+
+    private ScoreRollup rollup(Long gameId, Resolution resolution, String start, long count, long sum, long min, long max) {
+        return new ScoreRollup(gameId, resolution, Instant.parse(start), count, sum, min, max);
+    }
+
+    private ScoreAggregate aggregate(Long gameId, long count, long sum, long min, long max) {
+        return new ScoreAggregate() {
+            public Long getGameId() {
+                return gameId;
+            }
+
+            public long getScoreCount() {
+                return count;
+            }
+
+            public long getScoreSum() {
+                return sum;
+            }
+
+            public long getMinScore() {
+                return min;
+            }
+
+            public long getMaxScore() {
+                return max;
+            }
+        };
+    }
+
+    private ScorePoint point(Long gameId, String createdAt, Long score) {
+        return new ScorePoint() {
+            public Long getGameId() {
+                return gameId;
+            }
+
+            public Instant getCreatedAt() {
+                return Instant.parse(createdAt);
+            }
+
+            public Long getScore() {
+                return score;
+            }
+        };
+    }
+}
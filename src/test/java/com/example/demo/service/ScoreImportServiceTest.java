@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.dto.ScoreImportOutcomeDTO;
+import com.example.demo.entity.dto.ScoreImportOutcomeDTO.Status;
+import com.example.demo.repository.ScoreBulkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreImportServiceTest {
+
+    @Mock
+    private ScoreBulkRepository scoreBulkRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ScoreListener scoreListener;
+
+    @InjectMocks
+    private ScoreImportService scoreImportService;
+
+    private final List<Score> table = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scoreImportService, "scoreListeners", List.of(scoreListener));
+        ReflectionTestUtils.setField(scoreImportService, "chunkSize", 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        // In-memory score table behind the bulk repository
+        lenient().when(scoreBulkRepository.findByUserIdAndGameIdPairs(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> pairs = invocation.getArgument(0);
+                    return table.stream()
+                            .filter(row -> pairs.stream().anyMatch(
+                                    pair -> pair[0].equals(row.getUserId()) && pair[1].equals(row.getGameId())))
+                            .map(this::copy)
+                            .toList();
+                });
+        lenient().doAnswer(invocation -> {
+            List<Score> scores = invocation.getArgument(0);
+            for (Score score : scores) {
+                table.stream()
+                        .filter(row -> row.getUserId().equals(score.getUserId()) && row.getGameId().equals(score.getGameId()))
+                        .findFirst()
+                        .ifPresentOrElse(row -> row.setScore(score.getScore()),
+                                () -> table.add(new Score(table.size() + 1L, score.getScore(), score.getUserId(), score.getGameId())));
+            }
+            return null;
+        }).when(scoreBulkRepository).upsert(any());
+    }
+
+    @Test
+    void importScores_ShouldReportOutcomePerRow() throws Exception {
+        // Given
+        table.add(new Score(1L, 50L, 1L, 1L));
+        table.add(new Score(2L, 70L, 2L, 1L));
+        String body = """
+                [{"score": 80, "userId": 1, "gameId": 1},
+                 {"score": 70, "userId": 2, "gameId": 1},
+                 {"score": 10, "userId": 3, "gameId": 1},
+                 {"userId": 4, "gameId": 1}]""";
+        List<ScoreImportOutcomeDTO> outcomes = new ArrayList<>();
+
+        // When
+        int rows = scoreImportService.importScores(stream(body), outcomes::addAll);
+
+        // Then
+        assertThat(rows).isEqualTo(4);
+        assertThat(outcomes).extracting(ScoreImportOutcomeDTO::getStatus)
+                .containsExactly(Status.UPDATED, Status.UNCHANGED, Status.INSERTED, Status.INVALID);
+        assertThat(outcomes).extracting(ScoreImportOutcomeDTO::getId).containsExactly(1L, 2L, 3L, null);
+        assertThat(table).extracting(Score::getScore).containsExactly(80L, 70L, 10L);
+    }
+
+    @Test
+    void importScores_ShouldKeepLastRow_WhenUserAndGameRepeat() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(scoreImportService, "chunkSize", 10);
+        String body = """
+                [{"score": 10, "userId": 1, "gameId": 1},
+                 {"score": 20, "userId": 1, "gameId": 1}]""";
+        List<ScoreImportOutcomeDTO> outcomes = new ArrayList<>();
+
+        // When
+        scoreImportService.importScores(stream(body), outcomes::addAll);
+
+        // Then
+        assertThat(outcomes).extracting(ScoreImportOutcomeDTO::getStatus).containsExactly(Status.SUPERSEDED, Status.INSERTED);
+        assertThat(table).singleElement().extracting(Score::getScore).isEqualTo(20L);
+        verify(scoreBulkRepository, times(1)).upsert(any());
+    }
+
+    @Test
+    void importScores_ShouldWriteOneBatchPerChunk_AndNotifyListeners() throws Exception {
+        // Given
+        table.add(new Score(1L, 50L, 1L, 1L));
+        String body = """
+                [{"score": 60, "userId": 1, "gameId": 1},
+                 {"score": 10, "userId": 2, "gameId": 1},
+                 {"score": 20, "userId": 3, "gameId": 1}]""";
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        // When
+        scoreImportService.importScores(stream(body), outcomes -> chunkSizes.add(outcomes.size()));
+
+        // Then
+        assertThat(chunkSizes).containsExactly(2, 1);
+        verify(scoreBulkRepository, times(2)).upsert(any());
+        ArgumentCaptor<Score> previous = ArgumentCaptor.forClass(Score.class);
+        verify(scoreListener, times(3)).onScoreSaved(previous.capture(), any(Score.class));
+        assertThat(previous.getAllValues().get(0).getScore()).isEqualTo(50L);
+        assertThat(previous.getAllValues().get(1)).isNull();
+    }
+
+    @Test
+    void importScores_ShouldWriteRowsReadBeforeMalformedElement() {
+        // Given
+        String body = """
+                [{"score": 10, "userId": 1, "gameId": 1}, 42]""";
+        List<ScoreImportOutcomeDTO> outcomes = new ArrayList<>();
+
+        // When / Then
+        assertThatThrownBy(() -> scoreImportService.importScores(stream(body), outcomes::addAll))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(outcomes).extracting(ScoreImportOutcomeDTO::getStatus).containsExactly(Status.INSERTED);
+    }
+
+    @Test
+    void importScores_ShouldRejectBodyThatIsNotAnArray() {
+        assertThatThrownBy(() -> scoreImportService.importScores(stream("{\"score\": 1}"), outcomes -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(scoreBulkRepository);
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Score copy(Score score) {
+        return new Score(score.getId(), score.getScore(), score.getUserId(), score.getGameId());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.repository.ScoreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against the H2 test database: concurrent writes on one row must never be lost
+@SpringBootTest
+class ScoreServiceConcurrencyTest {
+
+    private static final int WRITERS = 32;
+
+    @Autowired
+    private ScoreService scoreService;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private GameRankingService gameRankingService;
+
+    @AfterEach
+    void tearDown() {
+        scoreRepository.findAll().forEach(score -> scoreService.deleteById(score.getId()));
+    }
+
+    @Test
+    void update_ShouldApplyEveryIncrement_WhenClientsUseIfMatch() throws Exception {
+        // Given
+        Score score = scoreService.save(new Score(null, 0L, 1L, 900L));
+        AtomicInteger preconditionFailures = new AtomicInteger();
+
+        // When each writer reads, increments and writes back with the version it read
+        runConcurrently(() -> {
+            while (true) {
+                Score current = scoreService.findById(score.getId()).orElseThrow();
+                try {
+                    scoreService.update(score.getId(), new Score(null, current.getScore() + 1, 1L, 900L),
+                            current.getVersion(), false);
+                    return null;
+                } catch (OptimisticLockingFailureException e) {
+                    preconditionFailures.incrementAndGet();
+                }
+            }
+        });
+
+        // Then
+        Score result = scoreRepository.findById(score.getId()).orElseThrow();
+        assertThat(result.getScore()).isEqualTo(WRITERS);
+        assertThat(result.getVersion()).isEqualTo(score.getVersion() + WRITERS);
+        assertThat(gameRankingService.getRank(900L).orElseThrow().getAverage()).isEqualTo(WRITERS);
+    }
+
+    @Test
+    void update_ShouldKeepHighestScore_WhenWritersRace() throws Exception {
+        // Given
+        Score score = scoreService.save(new Score(null, 0L, 2L, 901L));
+        AtomicInteger next = new AtomicInteger();
+
+        // When
+        runConcurrently(() -> {
+            for (int i = 0; i < 10; i++) {
+                long value = next.incrementAndGet();
+                updateWithRetry(() -> scoreService.update(score.getId(), new Score(null, value, 2L, 901L), null, true));
+            }
+            return null;
+        });
+
+        // Then
+        assertThat(scoreRepository.findById(score.getId()).orElseThrow().getScore()).isEqualTo(WRITERS * 10L);
+        assertThat(gameRankingService.getRank(901L).orElseThrow().getCount()).isEqualTo(1);
+    }
+
+    // The service gives up after a few contended attempts, the client tries again
+    private void updateWithRetry(Runnable update) {
+        while (true) {
+            try {
+                update.run();
+                return;
+            } catch (ConcurrencyFailureException e) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void runConcurrently(Callable<Void> writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                futures.add(executor.submit(writer));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
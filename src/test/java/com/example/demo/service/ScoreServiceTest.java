@@ -5,17 +5,22 @@ import com.example.demo.repository.ScoreRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -131,6 +136,92 @@ class ScoreServiceTest {
         verify(scoreRepository, times(1)).save(existingScore);
     }
 
+    @Test
+    void save_ShouldInsertWithGeneratedId_WhenIdIsUnknown() {
+        // Given
+        Score newScore = new Score(42L, 60L, 2L, 3L);
+        when(scoreRepository.findById(42L)).thenReturn(Optional.empty());
+        when(scoreRepository.findByUserIdAndGameId(2L, 3L)).thenReturn(Optional.empty());
+        when(scoreRepository.save(newScore)).thenReturn(new Score(8L, 60L, 2L, 3L));
+
+        // When
+        Score result = scoreService.save(newScore);
+
+        // Then
+        assertThat(newScore.getId()).isNull();
+        assertThat(result.getId()).isEqualTo(8L);
+    }
+
+    @Test
+    void save_ShouldReplaceExistingScore_WhenUserAlreadyRatedGame() {
+        // Given
+        Score existingScore = versioned(new Score(7L, 40L, 1L, 1L), 2L);
+        Score newScore = new Score(null, 90L, 1L, 1L);
+        when(scoreRepository.findByUserIdAndGameId(1L, 1L)).thenReturn(Optional.of(existingScore));
+        when(scoreRepository.findById(7L)).thenReturn(Optional.of(existingScore));
+        when(scoreRepository.updateIfVersion(7L, 2L, 90L, 1L, 1L)).thenReturn(1);
+
+        // When
+        Score result = scoreService.save(newScore);
+
+        // Then
+        assertThat(result.getId()).isEqualTo(7L);
+        assertThat(result.getScore()).isEqualTo(90L);
+        assertThat(result.getVersion()).isEqualTo(3L);
+        verify(scoreRepository, never()).save(any(Score.class));
+    }
+
+    @Test
+    void save_ShouldNotifyListenersOfInsert() {
+        // Given
+        ScoreListener listener = mock(ScoreListener.class);
+        ReflectionTestUtils.setField(scoreService, "scoreListeners", List.of(listener));
+        Score newScore = new Score(null, 80L, 2L, 3L);
+        Score savedScore = new Score(3L, 80L, 2L, 3L);
+        when(scoreRepository.save(newScore)).thenReturn(savedScore);
+
+        // When
+        scoreService.save(newScore);
+
+        // Then
+        verify(listener, times(1)).onScoreSaved(null, savedScore);
+    }
+
+    @Test
+    void update_ShouldNotifyListenersWithPreviousValue() {
+        // Given
+        ScoreListener listener = mock(ScoreListener.class);
+        ReflectionTestUtils.setField(scoreService, "scoreListeners", List.of(listener));
+        Score existingScore = versioned(new Score(1L, 40L, 1L, 1L), 0L);
+        when(scoreRepository.findById(1L)).thenReturn(Optional.of(existingScore));
+        when(scoreRepository.updateIfVersion(1L, 0L, 90L, 1L, 1L)).thenReturn(1);
+
+        // When
+        scoreService.update(1L, new Score(null, 90L, 1L, 1L));
+
+        // Then
+        ArgumentCaptor<Score> previous = ArgumentCaptor.forClass(Score.class);
+        ArgumentCaptor<Score> current = ArgumentCaptor.forClass(Score.class);
+        verify(listener).onScoreSaved(previous.capture(), current.capture());
+        assertThat(previous.getValue().getScore()).isEqualTo(40L);
+        assertThat(current.getValue().getScore()).isEqualTo(90L);
+    }
+
+    @Test
+    void deleteById_ShouldNotifyListeners_WhenScoreExisted() {
+        // Given
+        ScoreListener listener = mock(ScoreListener.class);
+        ReflectionTestUtils.setField(scoreService, "scoreListeners", List.of(listener));
+        when(scoreRepository.findById(1L)).thenReturn(Optional.of(score));
+
+        // When
+        scoreService.deleteById(1L);
+
+        // Then
+        verify(scoreRepository, times(1)).deleteById(1L);
+        verify(listener, times(1)).onScoreDeleted(any(Score.class));
+    }
+
     @Test
     void deleteById_ShouldCallRepositoryDelete() {
         // Given
@@ -149,10 +240,10 @@ class ScoreServiceTest {
         // Given
         Long scoreId = 1L;
         Score updatedDetails = new Score(null, 3000L, 5L, 10L);
-        Score existingScore = new Score(1L, 1000L, 1L, 1L);
+        Score existingScore = versioned(new Score(1L, 1000L, 1L, 1L), 0L);
         
         when(scoreRepository.findById(scoreId)).thenReturn(Optional.of(existingScore));
-        when(scoreRepository.save(any(Score.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(scoreRepository.updateIfVersion(eq(scoreId), eq(0L), any(), any(), any())).thenReturn(1);
 
         // When
         Optional<Score> result = scoreService.update(scoreId, updatedDetails);
@@ -163,7 +254,7 @@ class ScoreServiceTest {
         assertThat(result.get().getUserId()).isEqualTo(5L);
         assertThat(result.get().getGameId()).isEqualTo(10L);
         verify(scoreRepository, times(1)).findById(scoreId);
-        verify(scoreRepository, times(1)).save(any(Score.class));
+        verify(scoreRepository, never()).save(any(Score.class));
     }
 
     @Test
@@ -187,10 +278,10 @@ class ScoreServiceTest {
         // Given
         Long scoreId = 1L;
         Score updatedDetails = new Score(null, 5000L, 3L, 2L);
-        Score existingScore = new Score(1L, 1000L, 1L, 1L);
+        Score existingScore = versioned(new Score(1L, 1000L, 1L, 1L), 0L);
         
         when(scoreRepository.findById(scoreId)).thenReturn(Optional.of(existingScore));
-        when(scoreRepository.save(any(Score.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(scoreRepository.updateIfVersion(eq(scoreId), eq(0L), any(), any(), any())).thenReturn(1);
 
         // When
         Optional<Score> result = scoreService.update(scoreId, updatedDetails);
@@ -202,6 +293,53 @@ class ScoreServiceTest {
         assertThat(result.get().getUserId()).isEqualTo(3L);
         assertThat(result.get().getGameId()).isEqualTo(2L);
         verify(scoreRepository, times(1)).findById(scoreId);
-        verify(scoreRepository, times(1)).save(any(Score.class));
+        verify(scoreRepository, never()).save(any(Score.class));
+    }
+
+    @Test
+    void update_ShouldRetryOnNewVersion_WhenRowChangedConcurrently() {
+        // Given
+        when(scoreRepository.findById(1L)).thenReturn(
+                Optional.of(versioned(new Score(1L, 10L, 1L, 1L), 0L)),
+                Optional.of(versioned(new Score(1L, 20L, 1L, 1L), 1L)));
+        when(scoreRepository.updateIfVersion(1L, 0L, 30L, 1L, 1L)).thenReturn(0);
+        when(scoreRepository.updateIfVersion(1L, 1L, 30L, 1L, 1L)).thenReturn(1);
+
+        // When
+        Optional<Score> result = scoreService.update(1L, new Score(null, 30L, 1L, 1L));
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void update_ShouldFail_WhenExpectedVersionIsStale() {
+        // Given
+        when(scoreRepository.findById(1L)).thenReturn(Optional.of(versioned(new Score(1L, 10L, 1L, 1L), 3L)));
+
+        // When / Then
+        assertThatThrownBy(() -> scoreService.update(1L, new Score(null, 30L, 1L, 1L), 2L, false))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(scoreRepository, never()).updateIfVersion(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void update_ShouldKeepBestScore_WhenNewScoreIsLower() {
+        // Given
+        when(scoreRepository.findById(1L)).thenReturn(Optional.of(versioned(new Score(1L, 80L, 1L, 1L), 0L)));
+
+        // When
+        Optional<Score> result = scoreService.update(1L, new Score(null, 60L, 1L, 1L), null, true);
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().getScore()).isEqualTo(80L);
+        verify(scoreRepository, never()).updateIfVersion(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    private Score versioned(Score score, Long version) {
+        score.setVersion(version);
+        return score;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,226 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.entity.ScoreEvent;
+import com.example.demo.repository.ScoreEventRepository;
+import com.example.demo.repository.ScoreRepository;
+import com.example.demo.repository.ScoreRepository.GameScoreCount;
+import com.example.demo.repository.ScoreRepository.GameScoreTotals;
+import com.example.demo.service.ScoreSnapshot.GameAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreSnapshotServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T12:30:00Z");
+
+    @Mock
+    private ScoreRepository scoreRepository;
+
+    @Mock
+    private ScoreEventRepository scoreEventRepository;
+
+    @Mock
+    private GameRankingService gameRankingService;
+
+    @Spy
+    private ScoreDistributionService scoreDistributionService = new ScoreDistributionService();
+
+    @InjectMocks
+    private ScoreSnapshotService scoreSnapshotService;
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("scores.snap");
+        ReflectionTestUtils.setField(scoreSnapshotService, "snapshotFile", file.toString());
+        ReflectionTestUtils.setField(scoreSnapshotService, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void checkpoint_ShouldWriteSnapshotFromScoreTable_WhenNoneExists() throws Exception {
+        // Given
+        when(scoreEventRepository.findMaxId()).thenReturn(42L);
+        when(scoreRepository.sumScoresByGame()).thenReturn(List.of(totals(3L, 2, 130L), totals(1L, 1, 50L)));
+        when(scoreRepository.countScoresByGameAndValue())
+                .thenReturn(List.of(count(3L, 40L, 1), count(3L, 90L, 1), count(1L, 50L, 1)));
+
+        // When
+        scoreSnapshotService.checkpoint();
+
+        // Then
+        ScoreSnapshot snapshot = ScoreSnapshot.open(file);
+        assertThat(snapshot.getWatermark()).isEqualTo(42L);
+        assertThat(snapshot.getTotalScores()).isEqualTo(3L);
+        assertThat(snapshot.getGameCount()).isEqualTo(2);
+        assertThat(snapshot.get(0).getGameId()).isEqualTo(1L);
+        GameAggregate game = snapshot.get(snapshot.indexOf(3L));
+        assertThat(game.getSum()).isEqualTo(130L);
+        assertThat(game.getCount()).isEqualTo(2L);
+        assertThat(game.getHistogram()[40]).isEqualTo(1);
+        assertThat(game.getHistogram()[90]).isEqualTo(1);
+        assertThat(snapshot.indexOf(2L)).isEqualTo(-1);
+    }
+
+    @Test
+    void checkpoint_ShouldFoldNewEventsIntoPreviousSnapshot() throws Exception {
+        // Given
+        writeSnapshot(10L, aggregate(1L, 50L), aggregate(3L, 40L));
+        when(scoreEventRepository.findAfter(eq(10L), any())).thenReturn(List.of(
+                event(11L, 3L, 40L, 70L), event(12L, 1L, 50L, null), event(13L, 2L, null, 20L)));
+
+        // When
+        scoreSnapshotService.checkpoint();
+
+        // Then
+        ScoreSnapshot snapshot = ScoreSnapshot.open(file);
+        assertThat(snapshot.getWatermark()).isEqualTo(13L);
+        assertThat(snapshot.getTotalScores()).isEqualTo(2L);
+        assertThat(snapshot.getGameCount()).isEqualTo(2);
+        assertThat(snapshot.indexOf(1L)).isEqualTo(-1);
+        assertThat(snapshot.get(0).getGameId()).isEqualTo(2L);
+        GameAggregate game = snapshot.get(snapshot.indexOf(3L));
+        assertThat(game.getSum()).isEqualTo(70L);
+        assertThat(game.getHistogram()[40]).isZero();
+        assertThat(game.getHistogram()[70]).isEqualTo(1);
+    }
+
+    @Test
+    void checkpoint_ShouldStopAtFirstRecentEvent_SoOlderEventsAfterItAreNotSkipped() throws Exception {
+        // Given event 12 is too recent, event 13 was created before it
+        writeSnapshot(10L, aggregate(3L, 40L));
+        when(scoreEventRepository.findAfter(eq(10L), any())).thenReturn(List.of(
+                event(11L, 3L, 40L, 70L), event(12L, 1L, null, 50L, NOW), event(13L, 2L, null, 20L)));
+
+        // When
+        scoreSnapshotService.checkpoint();
+
+        // Then
+        ScoreSnapshot snapshot = ScoreSnapshot.open(file);
+        assertThat(snapshot.getWatermark()).isEqualTo(11L);
+        assertThat(snapshot.getGameCount()).isEqualTo(1);
+        assertThat(snapshot.get(0).getSum()).isEqualTo(70L);
+    }
+
+    @Test
+    void restore_ShouldLoadSnapshotAndReplayNewerEvents() throws Exception {
+        // Given
+        writeSnapshot(10L, aggregate(3L, 40L));
+        when(scoreEventRepository.findAfter(eq(10L), any())).thenReturn(List.of(event(11L, 3L, null, 90L)));
+        when(scoreRepository.count()).thenReturn(2L);
+
+        // When
+        boolean restored = scoreSnapshotService.restore();
+
+        // Then
+        assertThat(restored).isTrue();
+        verify(gameRankingService).rebuild(argThat(rows -> rows.size() == 1 && rows.get(0).getSum() == 40L));
+        verify(gameRankingService).onScoreSaved(isNull(), any(Score.class));
+        assertThat(scoreDistributionService.getStanding(3L, 40L).getPlayersBelow()).isZero();
+        assertThat(scoreDistributionService.getStanding(3L, 40L).getPlayersAbove()).isEqualTo(1L);
+    }
+
+    @Test
+    void restore_ShouldReturnFalse_WhenScoreCountDoesNotMatch() throws Exception {
+        // Given
+        writeSnapshot(10L, aggregate(3L, 40L));
+        when(scoreRepository.count()).thenReturn(5L);
+
+        // When
+        boolean restored = scoreSnapshotService.restore();
+
+        // Then
+        assertThat(restored).isFalse();
+    }
+
+    @Test
+    void restore_ShouldReturnFalse_WhenSnapshotIsOlderThanEventRetention() throws Exception {
+        // Given
+        ScoreSnapshot.write(file, 0, 100, 10L, NOW.minusSeconds(3 * 24 * 3600).toEpochMilli(), 1, 1,
+                List.of(aggregate(3L, 40L)).iterator());
+
+        // When
+        boolean restored = scoreSnapshotService.restore();
+
+        // Then
+        assertThat(restored).isFalse();
+        verify(scoreEventRepository, never()).findAfter(anyLong(), any());
+    }
+
+    private void writeSnapshot(long watermark, GameAggregate... games) throws Exception {
+        ScoreSnapshot.write(file, 0, 100, watermark, NOW.toEpochMilli(), games.length, games.length,
+                List.of(games).iterator());
+    }
+
+    private GameAggregate aggregate(long gameId, long score) {
+        int[] histogram = new int[101];
+        histogram[(int) score] = 1;
+        return new GameAggregate(gameId, score, 1, histogram);
+    }
+
+    private ScoreEvent event(Long id, Long gameId, Long previousScore, Long score) {
+        return event(id, gameId, previousScore, score, NOW.minusSeconds(300));
+    }
+
+    private ScoreEvent event(Long id, Long gameId, Long previousScore, Long score, Instant createdAt) {
+        ScoreEvent event = new ScoreEvent(gameId, 1L, previousScore, score, createdAt);
+        event.setId(id);
+        return event;
+    }
+
+    private GameScoreTotals totals(Long gameId, long count, Long sum) {
+        return new GameScoreTotals() {
+            public Long getGameId() {
+                return gameId;
+            }
+
+            public long getCount() {
+                return count;
+            }
+
+            public Long getSum() {
+                return sum;
+            }
+        };
+    }
+
+    private GameScoreCount count(Long gameId, Long score, long count) {
+        return new GameScoreCount() {
+            public Long getGameId() {
+                return gameId;
+            }
+
+            public Long getScore() {
+                return score;
+            }
+
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
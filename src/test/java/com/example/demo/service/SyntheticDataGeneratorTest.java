@@ -0,0 +1,162 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Score;
+import com.example.demo.repository.SyntheticDataRepository;
+import com.example.demo.repository.SyntheticDataRepository.CommentaryRow;
+import com.example.demo.repository.SyntheticDataRepository.UserRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SyntheticDataGeneratorTest {
+
+    // Rows handed to a mocked repository, in insertion order
+    private static final class Generated {
+
+        private final List<UserRow> users = new CopyOnWriteArrayList<>();
+        private final List<String> libraries = new CopyOnWriteArrayList<>();
+        private final List<String> scores = new CopyOnWriteArrayList<>();
+        private final List<CommentaryRow> commentaries = new CopyOnWriteArrayList<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Generated generate(int producers) throws Exception {
+        Generated generated = new Generated();
+        SyntheticDataRepository repository = mock(SyntheticDataRepository.class);
+        when(repository.nextId(any())).thenReturn(6L);
+        when(repository.findGameIds()).thenReturn(List.of(1L));
+        doAnswer(invocation -> generated.users.addAll(invocation.getArgument(0))).when(repository).insertUsers(anyList());
+        doAnswer(invocation -> {
+            ((List<long[]>) invocation.getArgument(0)).forEach(entry -> generated.libraries.add(entry[0] + ":" + entry[1]));
+            return null;
+        }).when(repository).insertLibraries(anyList());
+        doAnswer(invocation -> {
+            ((List<Score>) invocation.getArgument(0)).forEach(score -> generated.scores
+                    .add(score.getUserId() + ":" + score.getGameId() + "=" + score.getScore()));
+            return null;
+        }).when(repository).insertScores(anyList());
+        doAnswer(invocation -> generated.commentaries.addAll(invocation.getArgument(0))).when(repository)
+                .insertCommentaries(anyList());
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hash");
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator();
+        ReflectionTestUtils.setField(generator, "syntheticDataRepository", repository);
+        ReflectionTestUtils.setField(generator, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(generator, "enabled", true);
+        ReflectionTestUtils.setField(generator, "users", 250);
+        ReflectionTestUtils.setField(generator, "games", 40);
+        ReflectionTestUtils.setField(generator, "librarySizeMean", 6.0);
+        ReflectionTestUtils.setField(generator, "librarySizeMax", 30);
+        ReflectionTestUtils.setField(generator, "commentariesPerGame", 10.0);
+        ReflectionTestUtils.setField(generator, "batchSize", 64);
+        ReflectionTestUtils.setField(generator, "producers", producers);
+        generator.run();
+        return generated;
+    }
+
+    @Test
+    void run_ShouldGenerateSameRows_WhateverTheNumberOfProducers() throws Exception {
+        // When
+        Generated sequential = generate(1);
+        Generated parallel = generate(4);
+
+        // Then
+        assertThat(parallel.users).containsExactlyInAnyOrderElementsOf(sequential.users);
+        assertThat(parallel.libraries).containsExactlyInAnyOrderElementsOf(sequential.libraries);
+        assertThat(parallel.scores).containsExactlyInAnyOrderElementsOf(sequential.scores);
+        assertThat(parallel.commentaries).containsExactlyInAnyOrderElementsOf(sequential.commentaries);
+    }
+
+    @Test
+    void run_ShouldFollowSettings() throws Exception {
+        // When
+        Generated generated = generate(2);
+
+        // Then
+        assertThat(generated.users).hasSize(250);
+        assertThat(generated.users).extracting(UserRow::id).containsExactlyInAnyOrderElementsOf(
+                LongStream.range(6, 256).boxed().toList());
+        assertThat(generated.users).allSatisfy(user -> {
+            assertThat(user.username()).hasSizeLessThanOrEqualTo(15);
+            assertThat(user.email()).isEqualTo(user.slug() + "@" + SyntheticDataGenerator.EMAIL_DOMAIN);
+            assertThat(user.password()).isEqualTo("hash");
+        });
+        assertThat(generated.users).extracting(UserRow::slug).doesNotHaveDuplicates();
+        assertThat(generated.libraries).doesNotHaveDuplicates();
+        Map<String, Long> libraryByUser = generated.libraries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.split(":")[0], Collectors.counting()));
+        assertThat(Collections.max(libraryByUser.values())).isLessThanOrEqualTo(30);
+        assertThat(generated.scores.size()).isLessThan(generated.libraries.size());
+        assertThat(generated.scores).allSatisfy(score -> assertThat(Long.parseLong(score.split("=")[1])).isBetween(0L, 100L));
+
+        // Popularity skew: game 1 is owned more than game 40
+        Map<String, Long> owners = generated.libraries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.split(":")[1], Collectors.counting()));
+        assertThat(owners.get("1")).isGreaterThan(owners.getOrDefault("40", 0L));
+
+        assertThat(generated.commentaries).hasSizeBetween(380, 420);
+        Map<Long, CommentaryRow> byId = generated.commentaries.stream()
+                .collect(Collectors.toMap(CommentaryRow::id, Function.identity()));
+        assertThat(generated.commentaries).anyMatch(commentary -> commentary.parentId() != null);
+        assertThat(generated.commentaries).allSatisfy(commentary -> {
+            assertThat(commentary.userId()).isBetween(6L, 255L);
+            if (commentary.parentId() == null) {
+                assertThat(commentary.rootId()).isEqualTo(commentary.id());
+                assertThat(commentary.depth()).isZero();
+            } else {
+                CommentaryRow parent = byId.get(commentary.parentId());
+                assertThat(commentary.gameId()).isEqualTo(parent.gameId());
+                assertThat(commentary.rootId()).isEqualTo(parent.rootId());
+                assertThat(commentary.path()).startsWith(parent.path());
+                assertThat(commentary.depth()).isEqualTo(parent.depth() + 1);
+            }
+        });
+    }
+
+    @Test
+    void run_ShouldSkip_WhenGeneratedUsersExist() throws Exception {
+        // Given
+        SyntheticDataRepository repository = mock(SyntheticDataRepository.class);
+        when(repository.countUsersByEmailDomain(SyntheticDataGenerator.EMAIL_DOMAIN)).thenReturn(3L);
+        SyntheticDataGenerator generator = new SyntheticDataGenerator();
+        ReflectionTestUtils.setField(generator, "syntheticDataRepository", repository);
+        ReflectionTestUtils.setField(generator, "enabled", true);
+
+        // When
+        generator.run();
+
+        // Then
+        verify(repository, never()).insertUsers(anyList());
+        verify(repository, never()).insertGames(anyList());
+    }
+
+    @Test
+    void library_ShouldDrawDistinctGames_EvenWhenAllGamesAreNeeded() {
+        // Given
+        double[] cumulative = SyntheticDataGenerator.cumulativeWeights(20, 2.0);
+
+        // When
+        Set<Integer> library = SyntheticDataGenerator.library(new Random(1), cumulative, 20);
+
+        // Then
+        assertThat(cumulative[19]).isEqualTo(1.0);
+        assertThat(library).hasSize(20).allSatisfy(game -> assertThat(game).isBetween(1, 20));
+        assertThat(SyntheticDataGenerator.cumulativeWeights(4, 0)).containsExactly(0.25, 0.5, 0.75, 1.0);
+    }
+}
@@ -451,6 +451,20 @@ class UserServiceTest {
         verify(userRepository, times(1)).findByUsername(username);
     }
 
+    @Test
+    void getIdClaimInToken_ShouldReturnUserId_WithoutQuery() {
+        // Given
+        String token = "valid.jwt.token";
+        when(jwtService.extractUserId(token)).thenReturn(1L);
+
+        // When
+        Long result = userService.getIdClaimInToken(token);
+
+        // Then
+        assertThat(result).isEqualTo(1L);
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void getSlugInToken_ShouldReturnUserSlug_WhenTokenValid() {
         // Given
@@ -469,4 +483,31 @@ class UserServiceTest {
         verify(jwtService, times(1)).extractUsername(token);
         verify(userRepository, times(1)).findByUsername(username);
     }
-}
\ No newline at end of file
+
+    @Test
+    void isAdminInToken_ShouldReturnTrue_WhenUserHasAdminRole() {
+        // Given
+        String token = "valid.jwt.token";
+        user.setRole(true);
+        when(jwtService.extractUsername(token)).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(user);
+
+        // When
+        boolean result = userService.isAdminInToken(token);
+
+        // Then
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    void isAdminInToken_ShouldReturnFalse_WhenUserIsNotAdminOrUnknown() {
+        // Given
+        when(jwtService.extractUsername("user.jwt.token")).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(user);
+        when(jwtService.extractUsername("ghost.jwt.token")).thenReturn("ghost");
+
+        // When / Then
+        assertThat(userService.isAdminInToken("user.jwt.token")).isFalse();
+        assertThat(userService.isAdminInToken("ghost.jwt.token")).isFalse();
+    }
+}